@@ -0,0 +1,118 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the ChessGame calls the server makes while validating and announcing a move.
+ * <p>
+ * Run with {@code java -jar benchmarks/target/benchmarks-all.jar}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveValidationBenchmark {
+
+    @Param({"start", "middlegame", "endgame"})
+    public String position;
+
+    private ChessGame game;
+    private ChessBoard board;
+    private int firstMove;
+
+    @Setup
+    public void setUp() {
+        game = Positions.all().get(position);
+        board = game.getBoard();
+        firstMove = firstLegalMove(game);
+    }
+
+    /**
+     * A copy of the game with nothing cached yet, made before every call, so ChessGame's cached
+     * status and legal moves don't turn the benchmark into a field read.
+     */
+    @State(Scope.Thread)
+    public static class Uncached {
+        ChessGame game;
+
+        @Setup(Level.Invocation)
+        public void setUp(MoveValidationBenchmark benchmark) {
+            game = benchmark.game.copy();
+            game.setTeamTurn(game.getTeamTurn()); //drops the cached results; no position here has an en passant square
+        }
+    }
+
+    private static int firstLegalMove(ChessGame game) {
+        for (int square = 0; square < 64; square++) {
+            Collection<ChessMove> moves = game.validMoves(ChessPosition.ofSquare(square));
+            if (!moves.isEmpty() && game.getBoard().getPiece(ChessPosition.ofSquare(square)).getTeamColor()
+                    == game.getTeamTurn()) {
+                return Move.encode(moves.iterator().next());
+            }
+        }
+        throw new IllegalStateException("No legal moves in benchmark position");
+    }
+
+    @Benchmark
+    public void validMoves(Uncached uncached, Blackhole blackhole) {
+        //every square, the way a client asking for highlights would; the first one fills the cache
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                Collection<ChessMove> moves = uncached.game.validMoves(ChessPosition.of(row, col));
+                blackhole.consume(moves);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(Uncached uncached) {
+        return uncached.game.isInCheckmate(uncached.game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessGame copy() {
+        return game.copy();
+    }
+
+    @Benchmark
+    public long makeMove() {
+        int undo = board.makeMove(firstMove);
+        long key = board.zobristKey();
+        board.unmakeMove(firstMove, undo);
+        return key;
+    }
+
+    @Benchmark
+    public ChessGame makeMoveOnGame() throws Exception {
+        ChessGame next = game.copy();
+        next.makeMove(Move.toChessMove(firstMove));
+        return next;
+    }
+}
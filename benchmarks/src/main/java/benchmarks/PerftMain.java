@@ -0,0 +1,39 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ParallelPerft;
+import chess.Perft;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs perft on the standard positions and prints node counts and nodes/sec.
+ * <p>
+ * Usage: {@code PerftMain [maxDepth] [threads]}. maxDepth defaults to 5. Passing a thread
+ * count runs the parallel driver on a pool of that size instead of the single-threaded one.
+ * Compare the counts between runs to catch move generator regressions, and the rates to
+ * catch slowdowns.
+ */
+public class PerftMain {
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        ParallelPerft parallel = threads > 0 ? new ParallelPerft(new ForkJoinPool(threads)) : null;
+
+        for (Map.Entry<String, ChessGame> position : Positions.all().entrySet()) {
+            System.out.println(position.getKey() + (parallel != null ? " (" + threads + " threads)" : ""));
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                long start = System.nanoTime();
+                long nodes = parallel != null ? parallel.perft(position.getValue(), depth)
+                        : Perft.perft(position.getValue(), depth);
+                print(new ParallelPerft.Result(depth, nodes, System.nanoTime() - start));
+            }
+        }
+    }
+
+    private static void print(ParallelPerft.Result result) {
+        System.out.printf("  depth %d: %,d nodes in %.1f ms (%,.0f nodes/sec)%n",
+                result.depth(), result.nodes(), result.nanos() / 1e6, result.nodesPerSecond());
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import chess.ChessGame;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The positions every benchmark and perft run uses, so numbers from different runs line up.
+ */
+public final class Positions {
+    public static final String MIDDLEGAME_FEN = "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP2BPPP/R1BQ1RK1 w - - 0 1";
+    public static final String ENDGAME_FEN = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    private Positions() {
+    }
+
+    public static ChessGame start() {
+        return new ChessGame();
+    }
+
+    public static ChessGame middlegame() {
+        return ChessGame.fromFen(MIDDLEGAME_FEN);
+    }
+
+    public static ChessGame endgame() {
+        return ChessGame.fromFen(ENDGAME_FEN);
+    }
+
+    /**
+     * @return every named position, in a stable order
+     */
+    public static Map<String, ChessGame> all() {
+        Map<String, ChessGame> positions = new LinkedHashMap<>();
+        positions.put("start", start());
+        positions.put("middlegame", middlegame());
+        positions.put("endgame", endgame());
+        return positions;
+    }
+}
@@ -0,0 +1,264 @@
+package dataaccess;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bounded pool of database connections, so a request doesn't pay for a new connection and login
+ * every time. The connections it hands out are wrappers whose close() gives the real connection
+ * back to the pool instead of closing it.
+ * <p>
+ * A connection that sat idle for a while is checked with isValid before it's handed out again. A
+ * background thread closes connections idle for longer than the idle timeout, keeps minIdle of
+ * them open, and, if leak detection is on, logs connections that have been borrowed for longer than
+ * the leak threshold along with where they were borrowed.
+ */
+class ConnectionPool implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+    //connections returned more recently than this are handed out again without a check
+    private static final long VALIDATION_SKIP_MS = 500;
+    private static final long HOUSEKEEPING_MS = 30_000;
+
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param leakDetectionMs how long a connection can be borrowed before a warning is logged, 0 for never
+     */
+    record Settings(int minIdle, int maxSize, long connectionTimeoutMs, long idleTimeoutMs,
+                    int validationTimeoutSeconds, long leakDetectionMs) {
+    }
+
+    private record IdleConnection(Connection connection, long returnedAt) {
+    }
+
+    private static class Lease {
+        final long borrowedAt;
+        final Exception borrowedFrom; //null when leak detection is off
+        boolean reported;
+
+        Lease(long borrowedAt, Exception borrowedFrom) {
+            this.borrowedAt = borrowedAt;
+            this.borrowedFrom = borrowedFrom;
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+    private final Semaphore permits; //one per connection that can be borrowed at once
+    private final Deque<IdleConnection> idle = new ArrayDeque<>(); //most recently returned first, guarded by this
+    private boolean closed; //guarded by this
+    private final Map<Connection, Lease> leased = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService housekeeper;
+
+    ConnectionPool(ConnectionFactory factory, Settings settings) {
+        if (settings.maxSize() < 1 || settings.minIdle() < 0 || settings.minIdle() > settings.maxSize()) {
+            throw new IllegalArgumentException("Pool needs 0 <= minIdle <= maxSize and maxSize >= 1");
+        }
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, 0, HOUSEKEEPING_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands out an idle connection, or opens a new one if none is idle. Waits up to the connection
+     * timeout when maxSize connections are already borrowed.
+     */
+    Connection borrow() throws SQLException {
+        try {
+            if (!permits.tryAcquire(settings.connectionTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(String.format(
+                        "No connection came free within %d ms", settings.connectionTimeoutMs()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection", e);
+        }
+
+        try {
+            Connection connection = takeIdle();
+            if (connection == null) {
+                connection = factory.open();
+            }
+            //the stack trace is only worth its cost when someone is going to look at it
+            Exception borrowedFrom = settings.leakDetectionMs() > 0 ? new Exception("Connection borrowed here") : null;
+            leased.put(connection, new Lease(System.currentTimeMillis(), borrowedFrom));
+            return wrap(connection);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // the most recently returned idle connection that still works, or null if there isn't one
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection entry;
+            synchronized (this) {
+                entry = idle.pollFirst();
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - entry.returnedAt() < VALIDATION_SKIP_MS || isValid(entry.connection())) {
+                return entry.connection();
+            }
+            closeQuietly(entry.connection());
+        }
+    }
+
+    private void release(Connection connection) {
+        leased.remove(connection);
+        try {
+            if (connection.isClosed()) {
+                return;
+            }
+            if (!connection.getAutoCommit()) { //don't let a half-done transaction leak into the next borrower
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            synchronized (this) {
+                if (!closed) {
+                    idle.addFirst(new IdleConnection(connection, System.currentTimeMillis()));
+                    return;
+                }
+            }
+            closeQuietly(connection);
+        } catch (SQLException e) {
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        AtomicBoolean returned = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        if (returned.compareAndSet(false, true)) {
+                            release(connection);
+                        }
+                        return null;
+                    }
+                    if (method.getName().equals("isClosed") && method.getParameterCount() == 0 && returned.get()) {
+                        return true;
+                    }
+                    if (returned.get() && method.getDeclaringClass() != Object.class) {
+                        throw new SQLException("Connection was already given back to the pool");
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private void houseKeep() {
+        try {
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                Iterator<IdleConnection> oldestFirst = idle.descendingIterator();
+                while (oldestFirst.hasNext() && idle.size() > settings.minIdle()) {
+                    IdleConnection entry = oldestFirst.next();
+                    if (now - entry.returnedAt() > settings.idleTimeoutMs()) {
+                        oldestFirst.remove();
+                        closeQuietly(entry.connection());
+                    }
+                }
+            }
+
+            //holding a permit while opening keeps borrowed and new idle connections within maxSize
+            while (openCount() < settings.minIdle() && permits.tryAcquire()) {
+                try {
+                    if (openCount() < settings.minIdle()) {
+                        Connection connection = factory.open();
+                        synchronized (this) {
+                            if (closed) {
+                                closeQuietly(connection);
+                                return;
+                            }
+                            idle.addLast(new IdleConnection(connection, now));
+                        }
+                    }
+                } finally {
+                    permits.release();
+                }
+            }
+
+            if (settings.leakDetectionMs() > 0) {
+                for (Lease lease : leased.values()) {
+                    if (!lease.reported && now - lease.borrowedAt > settings.leakDetectionMs()) {
+                        lease.reported = true;
+                        LOG.warn("Connection borrowed {} ms ago hasn't been closed, possible leak",
+                                now - lease.borrowedAt, lease.borrowedFrom);
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            //the database may just be down; the next run tries again
+            LOG.warn("Connection pool housekeeping failed", e);
+        }
+    }
+
+    /**
+     * Stops the background thread and closes the idle connections. Borrowed ones are closed for
+     * real when they're given back.
+     */
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        synchronized (this) {
+            closed = true;
+            for (IdleConnection entry : idle) {
+                closeQuietly(entry.connection());
+            }
+            idle.clear();
+        }
+    }
+
+    private synchronized int openCount() {
+        return idle.size() + leased.size();
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(settings.validationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            //it's being thrown away anyway
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
+
 import java.util.Collection;
 
 import model.*;
@@ -20,8 +23,27 @@ public interface DataAccess {
 
     Collection<GameData> listGames() throws DataAccessException;
 
+    /**
+     * Replaces the whole game, including its state. Fails if moves newer than the given state have
+     * been appended, so a stale copy can't wipe them out.
+     */
     void updateGame(GameData updatedGame) throws DataAccessException;
 
+    /**
+     * Sets who is playing each side without touching the game's state.
+     */
+    void updatePlayers(int gameID, String whiteUsername, String blackUsername) throws DataAccessException;
+
+    /**
+     * Records one move of a game without rewriting the rest of it. The caller must already have
+     * checked the move is legal; it isn't checked again here.
+     *
+     * @param ply   the game's {@link ChessGame#getPly} before the move; a move for any other
+     *              ply is rejected, so two players can't both add the same move
+     * @param after the game with the move made, saved whole now and then so reads replay less
+     */
+    void appendMove(int gameID, int ply, ChessMove move, ChessGame after) throws DataAccessException;
+
     void createAuth(AuthData authData) throws DataAccessException;
 
     AuthData getAuth(String authToken) throws DataAccessException;
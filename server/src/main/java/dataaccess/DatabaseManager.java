@@ -8,6 +8,9 @@ public class DatabaseManager {
     private static String dbUsername;
     private static String dbPassword;
     private static String connectionUrl;
+    private static ConnectionPool.Settings poolSettings;
+    private static Properties connectionProperties;
+    private static volatile ConnectionPool pool; //made on first use, after createDatabase has run
 
     /*
      * Load the database information for the db.properties file.
@@ -30,10 +33,10 @@ public class DatabaseManager {
     }
 
     /**
-     * Create a connection to the database and sets the catalog based upon the
+     * Borrow a connection to the database from the pool, with the catalog set based upon the
      * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * be short-lived, and you must close the connection when you are done with it, which gives
+     * it back to the pool. The easiest way to do that is with a try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DatabaseManager.getConnection()) {
@@ -44,14 +47,42 @@ public class DatabaseManager {
     static Connection getConnection() throws DataAccessException {
         try {
             //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            return conn;
+            return pool().borrow();
         } catch (SQLException ex) {
             throw new DataAccessException("failed to get connection", ex);
         }
     }
 
+    private static ConnectionPool pool() {
+        if (pool == null) {
+            synchronized (DatabaseManager.class) {
+                if (pool == null) {
+                    pool = new ConnectionPool(DatabaseManager::openConnection, poolSettings);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Closes the pool's idle connections and stops its background thread. A later getConnection
+     * starts a new pool.
+     */
+    static public void closePool() {
+        synchronized (DatabaseManager.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        }
+    }
+
+    private static Connection openConnection() throws SQLException {
+        var conn = DriverManager.getConnection(connectionUrl, connectionProperties);
+        conn.setCatalog(databaseName);
+        return conn;
+    }
+
     private static void loadPropertiesFromResources() {
         try (var propStream = Thread.currentThread().getContextClassLoader().getResourceAsStream("db.properties")) {
             if (propStream == null) {
@@ -73,5 +104,24 @@ public class DatabaseManager {
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
         connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+
+        //statements are prepared on the server once per pooled connection, and closing one keeps it
+        //in the driver's cache for the next time the same SQL string comes along
+        connectionProperties = new Properties();
+        connectionProperties.setProperty("user", dbUsername);
+        connectionProperties.setProperty("password", dbPassword);
+        connectionProperties.setProperty("useServerPrepStmts", "true");
+        connectionProperties.setProperty("cachePrepStmts", "true");
+        connectionProperties.setProperty("prepStmtCacheSize", props.getProperty("db.prepStmtCacheSize", "250"));
+        connectionProperties.setProperty("prepStmtCacheSqlLimit", props.getProperty("db.prepStmtCacheSqlLimit", "2048"));
+
+        //all optional
+        poolSettings = new ConnectionPool.Settings(
+                Integer.parseInt(props.getProperty("db.pool.minIdle", "2")),
+                Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                Long.parseLong(props.getProperty("db.pool.connectionTimeoutMs", "30000")),
+                Long.parseLong(props.getProperty("db.pool.idleTimeoutMs", "600000")),
+                Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "5")),
+                Long.parseLong(props.getProperty("db.pool.leakDetectionMs", "0")));
     }
 }
@@ -1,6 +1,7 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import org.mindrot.jbcrypt.BCrypt;
 
 import java.util.Collection;
@@ -56,10 +57,34 @@ public class MemoryDataAccess implements DataAccess {
     }
 
     @Override
-    public void updateGame(GameData updatedGame) {
+    public void updateGame(GameData updatedGame) throws DataAccessException {
+        GameData gameData = games.get(updatedGame.gameID());
+        if (gameData != null && gameData.game().getPly() > updatedGame.game().getPly()) {
+            throw new DataAccessException(String.format("Game %d has moves newer than this state", updatedGame.gameID()));
+        }
         games.put(updatedGame.gameID(), updatedGame);
     }
 
+    @Override
+    public void updatePlayers(int gameID, String whiteUsername, String blackUsername) {
+        GameData gameData = games.get(gameID);
+        if (gameData != null) {
+            games.put(gameID, new GameData(gameID, whiteUsername, blackUsername, gameData.gameName(), gameData.game()));
+        }
+    }
+
+    @Override
+    public void appendMove(int gameID, int ply, ChessMove move, ChessGame after) throws DataAccessException {
+        GameData gameData = games.get(gameID);
+        if (gameData == null) {
+            throw new DataAccessException("No game with ID " + gameID);
+        }
+        if (ply != gameData.game().getPly()) {
+            throw new DataAccessException(String.format("Game %d is at ply %d, not %d", gameID, gameData.game().getPly(), ply));
+        }
+        games.put(gameID, new GameData(gameID, gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), after));
+    }
+
 
 
     @Override
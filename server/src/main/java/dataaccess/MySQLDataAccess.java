@@ -1,7 +1,18 @@
 package dataaccess;
 
+import chess.ChessBoard;
 import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.Move;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import model.AuthData;
 import model.GameData;
 import model.UserData;
@@ -16,7 +27,8 @@ import model.*;
 import static java.sql.Statement.RETURN_GENERATED_KEYS;
 
 public class MySQLDataAccess implements DataAccess{
-
+    //appendMove folds the move log into games.state once every this many moves
+    static final int SNAPSHOT_INTERVAL = 32;
 
     public MySQLDataAccess() throws DataAccessException {
         configureDatabase();
@@ -48,11 +60,21 @@ public class MySQLDataAccess implements DataAccess{
                 `whiteUsername` varchar(256) DEFAULT NULL,
                 `blackUsername` varchar(256) DEFAULT NULL,
                 `gameName` varchar(256) NOT NULL,
-                `game` TEXT NOT NULL,
+                `state` BLOB NOT NULL,
+                `snapshot_ply` int NOT NULL DEFAULT 0,
                 PRIMARY KEY (`id`),
                 FOREIGN KEY (`whiteUsername`) REFERENCES users(username),
                 FOREIGN KEY (`blackUsername`) REFERENCES users(username)
                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS  game_moves (
+                `game_id` int NOT NULL,
+                `ply` int NOT NULL,
+                `move` smallint NOT NULL,
+                PRIMARY KEY (`game_id`, `ply`),
+                FOREIGN KEY (`game_id`) REFERENCES games(id) ON DELETE CASCADE
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
             """
     };
 
@@ -65,17 +87,112 @@ public class MySQLDataAccess implements DataAccess{
                     preparedStatement.executeUpdate();
                 }
             }
+            migrateLegacyGames(conn);
+            if (!hasColumn(conn, "games", "snapshot_ply")) { //tables from before the move log
+                try (var ps = conn.prepareStatement("ALTER TABLE games ADD COLUMN `snapshot_ply` int NOT NULL DEFAULT 0")) {
+                    ps.executeUpdate();
+                }
+                //the log numbers moves by the game's own ply, so each saved state starts at its own
+                try (var select = conn.prepareStatement("SELECT id, state FROM games");
+                     var update = conn.prepareStatement("UPDATE games SET snapshot_ply = ? WHERE id = ?");
+                     var rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        update.setInt(1, ChessGameCodec.decode(rs.getBytes("state")).getPly());
+                        update.setInt(2, rs.getInt("id"));
+                        update.addBatch();
+                    }
+                    update.executeBatch();
+                }
+            }
         } catch (SQLException ex) {
             throw new DataAccessException(String.format("Unable to configure database: %s", ex.getMessage()));
         }
     }
 
+    /*
+     * Games used to be stored as Gson JSON in a TEXT column called game. A table from back then gets
+     * the state column, every row is re-encoded into it, and then the old column is dropped.
+     */
+    private void migrateLegacyGames(Connection conn) throws SQLException {
+        if (!hasColumn(conn, "games", "game")) {
+            return;
+        }
+        if (!hasColumn(conn, "games", "state")) {
+            try (var ps = conn.prepareStatement("ALTER TABLE games ADD COLUMN `state` BLOB NULL")) {
+                ps.executeUpdate();
+            }
+        }
+        try (var select = conn.prepareStatement("SELECT id, game FROM games WHERE state IS NULL");
+             var update = conn.prepareStatement("UPDATE games SET state = ? WHERE id = ?");
+             var rs = select.executeQuery()) {
+            while (rs.next()) {
+                update.setBytes(1, ChessGameCodec.encode(fromLegacyJson(rs.getString("game"))));
+                update.setInt(2, rs.getInt("id"));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE games DROP COLUMN game")) {
+            ps.executeUpdate();
+        }
+        try (var ps = conn.prepareStatement("ALTER TABLE games MODIFY `state` BLOB NOT NULL")) {
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next();
+        }
+    }
+
+    /*
+     * Reads a game saved as JSON by any older version: either the first ChessBoard's
+     * ChessPiece[8][8] (board[row-1][col-1]) or the bitboard one's long per piece kind.
+     * The board is rebuilt with addPiece so the derived fields are worked out fresh.
+     */
+    static ChessGame fromLegacyJson(String json) {
+        JsonObject root = JsonParser.parseString(json).getAsJsonObject();
+        JsonObject boardJson = root.getAsJsonObject("board");
+        ChessBoard board = new ChessBoard();
+        if (boardJson.has("board")) {
+            Gson gson = new Gson();
+            JsonArray rows = boardJson.getAsJsonArray("board");
+            for (int row = 0; row < rows.size(); row++) {
+                JsonArray columns = rows.get(row).getAsJsonArray();
+                for (int col = 0; col < columns.size(); col++) {
+                    JsonElement square = columns.get(col);
+                    if (!square.isJsonNull()) {
+                        board.addPiece(ChessPosition.of(row + 1, col + 1), gson.fromJson(square, ChessPiece.class));
+                    }
+                }
+            }
+        } else {
+            JsonArray pieces = boardJson.getAsJsonArray("pieces");
+            for (int index = 0; index < pieces.size(); index++) {
+                long bits = pieces.get(index).getAsLong();
+                while (bits != 0) {
+                    board.addPiece(ChessPosition.ofSquare(Long.numberOfTrailingZeros(bits)), ChessBoard.pieceOf(index));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        if (root.has("teamColor") && !root.get("teamColor").isJsonNull()) {
+            game.setTeamTurn(ChessGame.TeamColor.valueOf(root.get("teamColor").getAsString()));
+        }
+        return game;
+    }
+
     @Override
     public void clear() throws DataAccessException{
         try (Connection conn = DatabaseManager.getConnection()) {
-            conn.prepareStatement("DELETE from auths").execute();
-            conn.prepareStatement("DELETE from games").execute();
-            conn.prepareStatement("DELETE from users").execute();
+            for (String statement : Queries.CLEAR) {
+                try (var ps = conn.prepareStatement(statement)) {
+                    ps.executeUpdate();
+                }
+            }
         } catch (Exception ex) {
             throw new DataAccessException("Unable to clear database", ex);
         }
@@ -85,16 +202,14 @@ public class MySQLDataAccess implements DataAccess{
     public void createUser(UserData user) throws DataAccessException{ //make sure that user is unique. I didn't do that with memory database.
         //conn.prepareStatement("INSERT INTO users values (1, " + user.username() + "," + user.password() + "," + user.email() + ")"); //Bad, unsafe
         String hashedPassword = BCrypt.hashpw(user.password(), BCrypt.gensalt());
-        String query = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
-        executeUpdate(query, user.username(), hashedPassword, user.email()); //This line returns an integer, the ID of the new user.
+        executeUpdate(Queries.INSERT_USER, user.username(), hashedPassword, user.email());
 
     }
 
     @Override
     public UserData getUser(String username) throws DataAccessException{
         try (Connection conn = DatabaseManager.getConnection()) {
-            String query = "SELECT username, password, email FROM users WHERE username = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
+            try (PreparedStatement ps = conn.prepareStatement(Queries.SELECT_USER)) {
                 ps.setString(1, username);
                 try (ResultSet rs = ps.executeQuery()) {
                     if (rs.next()) {
@@ -116,8 +231,7 @@ public class MySQLDataAccess implements DataAccess{
     public Collection<UserData> listUsers() throws DataAccessException {
         ArrayList<UserData> userList = new ArrayList<UserData>();
         try (Connection conn = DatabaseManager.getConnection()) {
-            String query = "SELECT * FROM users";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
+            try (PreparedStatement ps = conn.prepareStatement(Queries.SELECT_USERS)) {
 
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
@@ -141,10 +255,9 @@ public class MySQLDataAccess implements DataAccess{
     @Override
     public int createGame(String gameName) throws DataAccessException{
 
-        String chessGameJson = new Gson().toJson(new ChessGame());
+        byte[] state = ChessGameCodec.encode(new ChessGame());
 
-        String query = "INSERT INTO games (gameName, game) VALUES (?, ?)";
-        int gameID = executeUpdate(query, gameName, chessGameJson);
+        int gameID = executeInsert(Queries.INSERT_GAME, gameName, state);
 
         return gameID;
     }
@@ -152,44 +265,67 @@ public class MySQLDataAccess implements DataAccess{
     @Override
     public GameData getGame(int gameID) throws DataAccessException{
         try (Connection conn = DatabaseManager.getConnection()) {
-            String query = "SELECT id, whiteUsername, blackUsername, gameName, game FROM games WHERE id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
-                ps.setInt(1, gameID);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        return new GameData(
-                                rs.getInt("id"),
-                                rs.getString("whiteUsername"),
-                                rs.getString("blackUsername"),
-                                rs.getString("gameName"),
-                                new Gson().fromJson(rs.getString("game"), ChessGame.class)
-                        );
-                    }
-                }
-            }
+            return readGame(conn, gameID);
         } catch (Exception e) {
             throw new DataAccessException(String.format("Unable to read data for gameID: %d", gameID), e);
         }
-        return null;
+    }
+
+    /*
+     * A game is its last snapshot in games.state with the moves logged since then played on top.
+     */
+    private GameData readGame(Connection conn, int gameID) throws SQLException, InvalidMoveException {
+        GameData game;
+        int snapshotPly;
+        try (PreparedStatement ps = conn.prepareStatement(Queries.SELECT_GAME)) {
+            ps.setInt(1, gameID);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                game = readGameRow(rs);
+                snapshotPly = rs.getInt("snapshot_ply");
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(Queries.SELECT_GAME_MOVES)) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, snapshotPly);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    game.game().makeMove(Move.toChessMove(rs.getInt("move")));
+                }
+            }
+        }
+        return game;
+    }
+
+    private static GameData readGameRow(ResultSet rs) throws SQLException {
+        return new GameData(
+                rs.getInt("id"),
+                rs.getString("whiteUsername"),
+                rs.getString("blackUsername"),
+                rs.getString("gameName"),
+                ChessGameCodec.decode(rs.getBytes("state"))
+        );
     }
 
     @Override
     public Collection<GameData> listGames() throws DataAccessException {
         ArrayList<GameData> games = new ArrayList<GameData>();
         try (Connection conn = DatabaseManager.getConnection()) {
-            String query = "SELECT id, whiteUsername, blackUsername, gameName, game FROM games";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
+            try (PreparedStatement ps = conn.prepareStatement(Queries.SELECT_GAMES_WITH_MOVES)) {
 
                 try (ResultSet rs = ps.executeQuery()) {
-                     while (rs.next()) {
-                        games.add(
-                            new GameData(
-                                rs.getInt("id"),
-                                rs.getString("whiteUsername"),
-                                rs.getString("blackUsername"),
-                                rs.getString("gameName"),
-                                new Gson().fromJson(rs.getString("game"), ChessGame.class)
-                        ));
+                    GameData current = null;
+                    while (rs.next()) {
+                        if (current == null || current.gameID() != rs.getInt("id")) {
+                            current = readGameRow(rs);
+                            games.add(current);
+                        }
+                        int move = rs.getInt("move");
+                        if (!rs.wasNull()) {
+                            current.game().makeMove(Move.toChessMove(move));
+                        }
                     }
                 }
             }
@@ -201,15 +337,40 @@ public class MySQLDataAccess implements DataAccess{
 
     @Override
     public void updateGame(GameData updatedGame) throws DataAccessException {
-        String query = "UPDATE games SET whiteUsername = ?, blackUsername = ?, game = ? WHERE id = ?";
-        String gameJson = new Gson().toJson(updatedGame.game());
+        byte[] state = ChessGameCodec.encode(updatedGame.game());
+        int ply = updatedGame.game().getPly();
 
-        executeUpdate(query,
+        int updated = executeUpdate(Queries.UPDATE_GAME,
                 updatedGame.whiteUsername(),
                 updatedGame.blackUsername(),
-                gameJson,
-                updatedGame.gameID()
+                state,
+                ply,
+                updatedGame.gameID(),
+                ply,
+                updatedGame.gameID(),
+                ply
         );
+        if (updated == 0) {
+            throw new DataAccessException(String.format("Game %d doesn't exist or has moves newer than this state",
+                    updatedGame.gameID()));
+        }
+    }
+
+    @Override
+    public void updatePlayers(int gameID, String whiteUsername, String blackUsername) throws DataAccessException {
+        executeUpdate(Queries.UPDATE_PLAYERS, whiteUsername, blackUsername, gameID);
+    }
+
+    @Override
+    public void appendMove(int gameID, int ply, ChessMove move, ChessGame after) throws DataAccessException {
+        int inserted = executeUpdate(Queries.INSERT_MOVE, ply, Move.encode(move), gameID, ply, gameID);
+        if (inserted == 0) {
+            throw new DataAccessException(String.format("Game %d doesn't exist or isn't at ply %d", gameID, ply));
+        }
+
+        if ((ply + 1) % SNAPSHOT_INTERVAL == 0) { //fold the log into games.state
+            executeUpdate(Queries.UPDATE_SNAPSHOT, ChessGameCodec.encode(after), ply + 1, gameID, ply);
+        }
     }
 
     @Override
@@ -219,8 +380,7 @@ public class MySQLDataAccess implements DataAccess{
             throw new DataAccessException("AuthData or its fields cannot be null");
         }
 
-        String query = "INSERT INTO auths (authToken, username) VALUES (?, ?)";
-        executeUpdate(query, authData.authToken(), authData.username());
+        executeUpdate(Queries.INSERT_AUTH, authData.authToken(), authData.username());
     }
 
     @Override
@@ -228,8 +388,7 @@ public class MySQLDataAccess implements DataAccess{
         if (authToken == null) {return null;}
 
         try (Connection conn = DatabaseManager.getConnection()) {
-            String query = "SELECT authToken, username FROM auths WHERE authToken = ?";
-            try (PreparedStatement ps = conn.prepareStatement(query)) {
+            try (PreparedStatement ps = conn.prepareStatement(Queries.SELECT_AUTH)) {
                 ps.setString(1, authToken);
                 try (ResultSet rs = ps.executeQuery()) {
                     if (rs.next()) {
@@ -251,27 +410,20 @@ public class MySQLDataAccess implements DataAccess{
     public void deleteAuth(AuthData authData) throws DataAccessException {
         if (authData == null || authData.authToken() == null) {return;}
 
-        String query = "DELETE FROM auths WHERE authToken = ?";
-        executeUpdate(query, authData.authToken());
+        executeUpdate(Queries.DELETE_AUTH, authData.authToken());
     }
 
-    private int executeUpdate(String statement, Object... params) throws DataAccessException { //Lol yoinked from pet shop.
+    //only inserts ask for generated keys, since that makes the driver fetch them after every statement
+    private int executeInsert(String statement, Object... params) throws DataAccessException { //Lol yoinked from pet shop.
         try (Connection conn = DatabaseManager.getConnection()) {
             try (PreparedStatement ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
-                for (int i = 0; i < params.length; i++) {
-                    Object param = params[i];
-                    if(param == null){
-                        ps.setNull(i + 1, Types.VARCHAR);
-                    }
-                    else if (param instanceof String p) {ps.setString(i + 1, p);}
-                    else if (param instanceof Integer p) {ps.setInt(i + 1, p);}
-
-                }
+                setParameters(ps, params);
                 ps.executeUpdate();
 
-                ResultSet rs = ps.getGeneratedKeys();
-                if (rs.next()) {
-                    return rs.getInt(1);
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    }
                 }
 
                 return 0;
@@ -280,4 +432,27 @@ public class MySQLDataAccess implements DataAccess{
             throw new DataAccessException(String.format("unable to update database: %s, %s", statement, e.getMessage()));
         }
     }
+
+    private int executeUpdate(String statement, Object... params) throws DataAccessException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(statement)) {
+                setParameters(ps, params);
+                return ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(String.format("unable to update database: %s, %s", statement, e.getMessage()));
+        }
+    }
+
+    private static void setParameters(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if(param == null){
+                ps.setNull(i + 1, Types.VARCHAR);
+            }
+            else if (param instanceof String p) {ps.setString(i + 1, p);}
+            else if (param instanceof Integer p) {ps.setInt(i + 1, p);}
+            else if (param instanceof byte[] p) {ps.setBytes(i + 1, p);}
+        }
+    }
 }
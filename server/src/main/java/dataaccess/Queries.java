@@ -0,0 +1,54 @@
+package dataaccess;
+
+/**
+ * Every SQL statement MySQLDataAccess runs on a normal request. Using the exact same string each
+ * time is what lets the driver's statement cache (see DatabaseManager) hand back the statement the
+ * server already prepared on that connection, instead of parsing it again.
+ */
+final class Queries {
+    //in the order clear() runs them, so nothing is deleted while a row still refers to it
+    static final String[] CLEAR = {
+            "DELETE FROM auths",
+            "DELETE FROM game_moves",
+            "DELETE FROM games",
+            "DELETE FROM users"
+    };
+
+    static final String INSERT_USER = "INSERT INTO users (username, password, email) VALUES (?, ?, ?)";
+    static final String SELECT_USER = "SELECT username, password, email FROM users WHERE username = ?";
+    static final String SELECT_USERS = "SELECT username, password, email FROM users";
+
+    static final String INSERT_GAME = "INSERT INTO games (gameName, state) VALUES (?, ?)";
+    static final String SELECT_GAME =
+            "SELECT id, whiteUsername, blackUsername, gameName, state, snapshot_ply FROM games WHERE id = ?";
+    static final String SELECT_GAME_MOVES = "SELECT move FROM game_moves WHERE game_id = ? AND ply >= ? ORDER BY ply";
+    //one row per logged move after each snapshot, or a single row with a null move if there aren't any
+    static final String SELECT_GAMES_WITH_MOVES = """
+            SELECT g.id, g.whiteUsername, g.blackUsername, g.gameName, g.state, m.move
+            FROM games g LEFT JOIN game_moves m ON m.game_id = g.id AND m.ply >= g.snapshot_ply
+            ORDER BY g.id, m.ply
+            """;
+    //the new state becomes the snapshot, unless the snapshot or the log is already past it
+    static final String UPDATE_GAME = """
+            UPDATE games SET whiteUsername = ?, blackUsername = ?, state = ?, snapshot_ply = ?
+            WHERE id = ? AND snapshot_ply <= ?
+            AND NOT EXISTS (SELECT 1 FROM game_moves WHERE game_id = ? AND ply >= ?)
+            """;
+    static final String UPDATE_PLAYERS = "UPDATE games SET whiteUsername = ?, blackUsername = ? WHERE id = ?";
+    //only inserts when the ply is the game's next one; the primary key catches two racing for the same ply
+    static final String INSERT_MOVE = """
+            INSERT INTO game_moves (game_id, ply, move)
+            SELECT g.id, ?, ? FROM games g
+            WHERE g.id = ? AND ? = GREATEST(g.snapshot_ply,
+                (SELECT COALESCE(MAX(m.ply) + 1, 0) FROM game_moves m WHERE m.game_id = ?))
+            """;
+    static final String UPDATE_SNAPSHOT =
+            "UPDATE games SET state = ?, snapshot_ply = ? WHERE id = ? AND snapshot_ply <= ?";
+
+    static final String INSERT_AUTH = "INSERT INTO auths (authToken, username) VALUES (?, ?)";
+    static final String SELECT_AUTH = "SELECT authToken, username FROM auths WHERE authToken = ?";
+    static final String DELETE_AUTH = "DELETE FROM auths WHERE authToken = ?";
+
+    private Queries() {
+    }
+}
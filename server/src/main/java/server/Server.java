@@ -201,5 +201,6 @@ public class Server{
 
     public void stop() {
         javalin.stop();
+        DatabaseManager.closePool();
     }
 }
@@ -1,5 +1,8 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
 import dataaccess.*;
 
 import java.util.ArrayList;
@@ -79,16 +82,42 @@ public class GameService {
             throw new DataAccessException("Error: already taken");
         }
 
-        GameData updatedGame;
+        String username = db.getAuth(request.authToken()).username();
         if (request.playerColor().equals("WHITE")) {
-            updatedGame = new GameData(game.gameID(), db.getAuth(request.authToken()).username(),
-                    game.blackUsername(), game.gameName(), game.game());
+            db.updatePlayers(game.gameID(), username, game.blackUsername());
         } else { // BLACK
-            updatedGame = new GameData(game.gameID(), game.whiteUsername(),
-                    db.getAuth(request.authToken()).username(), game.gameName(), game.game());
+            db.updatePlayers(game.gameID(), game.whiteUsername(), username);
         }
+    }
 
-        db.updateGame(updatedGame);
+    /**
+     * Plays a move for whoever's turn it is, storing just the move rather than the whole game.
+     *
+     * @return the game after the move
+     */
+    public GameData makeMove(String authToken, int gameID, ChessMove move) throws DataAccessException {
+        AuthData auth = authToken == null ? null : db.getAuth(authToken);
+        if (auth == null) {
+            throw new DataAccessException("Error: unauthorized");
+        }
+        GameData game = db.getGame(gameID);
+        if (game == null || move == null) {
+            throw new DataAccessException("Error: bad request");
+        }
+        String player = game.game().getTeamTurn() == ChessGame.TeamColor.WHITE ? game.whiteUsername() : game.blackUsername();
+        if (!auth.username().equals(player)) {
+            throw new DataAccessException("Error: not your turn");
+        }
+
+        //tried on a copy, since the data access may hand back the game it's holding
+        ChessGame after = game.game().copy();
+        try {
+            after.makeMove(move);
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("Error: invalid move");
+        }
+        db.appendMove(gameID, game.game().getPly(), move, after);
+        return new GameData(gameID, game.whiteUsername(), game.blackUsername(), game.gameName(), after);
     }
 
 }
@@ -0,0 +1,45 @@
+package dataaccess;
+
+import chess.*;
+import model.GameData;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryDataAccessTest {
+
+    private final DataAccess db = new MemoryDataAccess();
+    private final ChessMove e4 = new ChessMove(new ChessPosition(2,5), new ChessPosition(4,5), null);
+
+    @Test
+    void appendMove() throws InvalidMoveException, DataAccessException {
+        int gameID = db.createGame("zeGame");
+        ChessGame game = new ChessGame();
+        game.makeMove(e4);
+        db.appendMove(gameID, 0, e4, game);
+        assertEquals(game, db.getGame(gameID).game());
+    }
+
+    @Test
+    void appendMoveOutOfOrder() throws InvalidMoveException, DataAccessException {
+        int gameID = db.createGame("zeGame");
+        ChessGame game = new ChessGame();
+        game.makeMove(e4);
+        //the first move can't be stored as the second, or twice
+        assertThrows(DataAccessException.class, () -> db.appendMove(gameID, 1, e4, game));
+        db.appendMove(gameID, 0, e4, game);
+        assertThrows(DataAccessException.class, () -> db.appendMove(gameID, 0, e4, game));
+    }
+
+    @Test
+    void updateStaleGame() throws InvalidMoveException, DataAccessException {
+        int gameID = db.createGame("zeGame");
+        GameData stale = new GameData(gameID, null, null, "zeGame", new ChessGame());
+        ChessGame game = new ChessGame();
+        game.makeMove(e4);
+        db.appendMove(gameID, 0, e4, game);
+
+        assertThrows(DataAccessException.class, () -> db.updateGame(stale));
+        assertEquals(1, db.getGame(gameID).game().getPly());
+    }
+}
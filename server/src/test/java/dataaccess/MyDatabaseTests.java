@@ -169,6 +169,71 @@ public class MyDatabaseTests {
         assertEquals("zeGame", retrievedGame.gameName());
     }
 
+    @Test
+    void testAppendMove() throws InvalidMoveException, DataAccessException {
+        //knights going back and forth, long enough to pass a snapshot
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1,2), new ChessPosition(3,3), null),
+                new ChessMove(new ChessPosition(8,2), new ChessPosition(6,3), null),
+                new ChessMove(new ChessPosition(3,3), new ChessPosition(1,2), null),
+                new ChessMove(new ChessPosition(6,3), new ChessPosition(8,2), null)
+        };
+        ChessGame game = new ChessGame();
+        int gameID = db.createGame("zeGame");
+        for (int ply = 0; ply < MySQLDataAccess.SNAPSHOT_INTERVAL + 3; ply++) {
+            ChessMove move = shuffle[ply % shuffle.length];
+            game.makeMove(move);
+            db.appendMove(gameID, ply, move, game);
+        }
+
+        assertEquals(game, db.getGame(gameID).game());
+        assertEquals(game, db.listGames().iterator().next().game());
+    }
+
+    @Test
+    void testAppendMoveTwice() throws InvalidMoveException, DataAccessException {
+        ChessMove move = new ChessMove(new ChessPosition(2,5), new ChessPosition(4,5), null);
+        ChessGame after = played(move);
+        int gameID = db.createGame("zeGame");
+        db.appendMove(gameID, 0, move, after);
+        assertThrows(DataAccessException.class, () -> db.appendMove(gameID, 0, move, after));
+    }
+
+    @Test
+    void testAppendMoveGap() throws InvalidMoveException, DataAccessException {
+        ChessMove move = new ChessMove(new ChessPosition(2,5), new ChessPosition(4,5), null);
+        ChessGame after = played(move);
+        int gameID = db.createGame("zeGame");
+        //the first move can't be stored as the second, or for a game that doesn't exist
+        assertThrows(DataAccessException.class, () -> db.appendMove(gameID, 1, move, after));
+        assertThrows(DataAccessException.class, () -> db.appendMove(gameID + 1, 0, move, after));
+        assertEquals(new ChessGame(), db.getGame(gameID).game());
+    }
+
+    @Test
+    void testUpdateStaleGame() throws InvalidMoveException, DataAccessException {
+        ChessMove move = new ChessMove(new ChessPosition(2,5), new ChessPosition(4,5), null);
+        int gameID = db.createGame("zeGame");
+        GameData stale = db.getGame(gameID);
+        db.appendMove(gameID, 0, move, played(move));
+
+        assertThrows(DataAccessException.class, () -> db.updateGame(stale));
+        assertEquals(1, db.getGame(gameID).game().getPly());
+    }
+
+    @Test
+    void testUpdatePlayers() throws InvalidMoveException, DataAccessException {
+        db.createUser(user1);
+        int gameID = db.createGame("zeGame");
+        ChessMove move = new ChessMove(new ChessPosition(2,5), new ChessPosition(4,5), null);
+        db.appendMove(gameID, 0, move, played(move));
+        db.updatePlayers(gameID, user1.username(), null);
+
+        GameData game = db.getGame(gameID);
+        assertEquals(user1.username(), game.whiteUsername());
+        assertEquals(1, game.game().getPly());
+    }
+
     @Test
     void testCreateAuth() throws DataAccessException {
         db.createUser(user1);
@@ -229,4 +294,10 @@ public class MyDatabaseTests {
         AuthData auth = new AuthData("nonexistentToken", "john");
         Assertions.assertDoesNotThrow(() -> db.deleteAuth(auth));
     }
-}
\ No newline at end of file
+
+    private static ChessGame played(ChessMove move) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move);
+        return game;
+    }
+}
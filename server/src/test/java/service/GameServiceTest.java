@@ -1,5 +1,8 @@
 package service;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
 import dataaccess.*;
 import model.*;
 
@@ -178,4 +181,57 @@ public class GameServiceTest {
         }
     }
 
+    @Test
+    void makeMoveHappy() throws DataAccessException {
+        UserData user = new UserData("johndoe", "pass", "j@d");
+        DB.createUser(user);
+        AuthData auth = new AuthData("token", user.username());
+        DB.createAuth(auth);
+        int gameID = DB.createGame("TestGame");
+        GAME_SERVICE.joinGame(new JoinRequest(auth.authToken(), "WHITE", gameID));
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        GameData game = GAME_SERVICE.makeMove(auth.authToken(), gameID, move);
+
+        assertEquals(ChessGame.TeamColor.BLACK, game.game().getTeamTurn());
+        assertEquals(game.game(), DB.getGame(gameID).game());
+    }
+
+    @Test
+    void makeMoveSadNotYourTurn() throws DataAccessException {
+        UserData user = new UserData("johndoe", "pass", "j@d");
+        DB.createUser(user);
+        AuthData auth = new AuthData("token", user.username());
+        DB.createAuth(auth);
+        int gameID = DB.createGame("TestGame");
+        GAME_SERVICE.joinGame(new JoinRequest(auth.authToken(), "BLACK", gameID));
+
+        ChessMove move = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        try {
+            GAME_SERVICE.makeMove(auth.authToken(), gameID, move);
+            fail("Expected a DataAccessException to be thrown");
+        } catch (DataAccessException e) {
+            assertEquals("Error: not your turn", e.getMessage());
+        }
+    }
+
+    @Test
+    void makeMoveSadInvalid() throws DataAccessException {
+        UserData user = new UserData("johndoe", "pass", "j@d");
+        DB.createUser(user);
+        AuthData auth = new AuthData("token", user.username());
+        DB.createAuth(auth);
+        int gameID = DB.createGame("TestGame");
+        GAME_SERVICE.joinGame(new JoinRequest(auth.authToken(), "WHITE", gameID));
+
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(5, 5), null);
+        try {
+            GAME_SERVICE.makeMove(auth.authToken(), gameID, move);
+            fail("Expected a DataAccessException to be thrown");
+        } catch (DataAccessException e) {
+            assertEquals("Error: invalid move", e.getMessage());
+        }
+        assertEquals(new ChessGame(), DB.getGame(gameID).game());
+    }
+
 }
@@ -0,0 +1,186 @@
+package chess;
+
+/**
+ * Precomputed attack sets, so finding the squares a piece attacks is a table read.
+ * <p>
+ * Knights, kings and pawns get a plain table per square. Rooks and bishops use magic
+ * bitboards: the blockers on a piece's rays are multiplied by a per-square magic number
+ * and shifted down to index a table of the attack sets for that blocker layout.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    //Found once by trying sparse random numbers until one sent every blocker layout on a square
+    //to a slot without clashing with a different attack set. Any such number works.
+    private static final long[] ROOK_MAGICS = {
+            0x3080081040002080L, 0x0840400010002000L, 0x1200201008420080L, 0x3180080035801001L,
+            0x0A00200200100409L, 0x0A00040810018200L, 0xA0802A0041000880L, 0x0200004184020F21L,
+            0x0400800020804000L, 0x420C400420100440L, 0x0412001020420080L, 0x4482004200102008L,
+            0x0140800800800400L, 0x0001000400030008L, 0x0041004100820024L, 0x200200023100804CL,
+            0x0080044001456011L, 0x001000C040002004L, 0x0068420011220480L, 0x2040808008001000L,
+            0x0211510028002500L, 0x0000480120403024L, 0x8020440091101208L, 0x800822000040A401L,
+            0x8880400080008028L, 0x0250004140002002L, 0x4989004100200016L, 0x0001010900100020L,
+            0x8204008080040800L, 0x0002000200100409L, 0x0431810080800200L, 0x0D28052E00004084L,
+            0x0080004000402000L, 0x0000401000402001L, 0x5001041145002000L, 0x4120823802801000L,
+            0x0004004008080080L, 0x9009000289000400L, 0x0004080184000210L, 0x0008800060800100L,
+            0x8600400080008020L, 0x4000200040008080L, 0x0510200041010018L, 0x180010010021000AL,
+            0x0204000800808005L, 0x002600081006000CL, 0x0200414802840010L, 0x4000408044020001L,
+            0x0000400080102080L, 0x0840804000200380L, 0x0020104020820200L, 0x0108201001018900L,
+            0x1005010800BC3100L, 0x0001000804000300L, 0x1428012842100400L, 0x208000A041040200L,
+            0x9100248000130241L, 0x0982008122449102L, 0x008100400C200011L, 0x8241000608201001L,
+            0x8402008408211002L, 0x0401000400020801L, 0x0812000100880402L, 0x0904002044148102L};
+    private static final long[] BISHOP_MAGICS = {
+            0x90708502240400A2L, 0x4002AC0846014040L, 0x0008360246000000L, 0x0104104202800000L,
+            0x002E061000200740L, 0xE002021005000022L, 0x000E009220101180L, 0x0000110818020820L,
+            0x0801321430048200L, 0x1021200242021020L, 0x0000080214102001L, 0x4800022082030010L,
+            0x0240040421EA0881L, 0x8A2001042005C041L, 0x0002090108A004ADL, 0x0400088084012000L,
+            0x410E4040850820C0L, 0xA450000484008418L, 0x8150002108420A40L, 0x0000800802810288L,
+            0x0012010401214000L, 0x0001100A01100100L, 0x000220044804044AL, 0x0104401201040108L,
+            0x4004A00040088114L, 0x0210100144214200L, 0xB518120101040300L, 0xA010040080401021L,
+            0x4324840002802010L, 0x9400848003026004L, 0x800100404A080400L, 0x0000810040840E80L,
+            0x020210040A132016L, 0x0002080340201200L, 0x4204004804104080L, 0x0034080800A20A00L,
+            0xE001110400020020L, 0xF000C80A00004100L, 0x20900202000080C1L, 0x0C8822A100002301L,
+            0x1008880840004800L, 0x0401008820440400L, 0x10020A0104821000L, 0x8000002104002040L,
+            0x0741822009048604L, 0xD240482080200900L, 0x22100202004A1402L, 0x00010805004A0302L,
+            0x61060104A0041000L, 0x8980308430080000L, 0x9008202084102000L, 0x4002008042020082L,
+            0x003100F00E022000L, 0x0304102001C90080L, 0x1150208A14AA0421L, 0x20B0114104008000L,
+            0x280444008401A002L, 0x4000010518020240L, 0x041020420102C840L, 0x0500200900411083L,
+            0x0200020040304900L, 0x000148081010008CL, 0x42C0208810910040L, 0x80102101080A0042L};
+
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] ROOK_RAYS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+    private static final int[][] BISHOP_RAYS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT[square] = steps(square, KNIGHT_STEPS);
+            KING[square] = steps(square, KING_STEPS);
+            PAWN[0][square] = steps(square, new int[][]{{1, -1}, {1, 1}});
+            PAWN[1][square] = steps(square, new int[][]{{-1, -1}, {-1, 1}});
+        }
+        for (int square = 0; square < 64; square++) {
+            initMagic(square, ROOK_RAYS, ROOK_MAGICS[square], ROOK_MASKS, ROOK_SHIFTS, ROOK_TABLE);
+            initMagic(square, BISHOP_RAYS, BISHOP_MAGICS[square], BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_TABLE);
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return the squares a pawn of the given color (0 white, 1 black) on this square attacks
+     */
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK_TABLE[square][(int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square])
+                >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[square][(int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square])
+                >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    private static long steps(int square, int[][] steps) {
+        long attacks = 0;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] step : steps) {
+            int r = row + step[0];
+            int c = col + step[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                attacks |= 1L << (r * 8 + c);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Walks each ray out from the square until it leaves the board or hits a blocker
+     * (the blocker's square is included, since it can be captured).
+     */
+    private static long slide(int square, int[][] rays, long occupied) {
+        long attacks = 0;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] ray : rays) {
+            int r = row + ray[0];
+            int c = col + ray[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long bit = 1L << (r * 8 + c);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                r += ray[0];
+                c += ray[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * The squares whose occupancy matters for a slider: its rays minus the board edge,
+     * since a piece on the last square of a ray can't block anything past it.
+     */
+    private static long relevantMask(int square, int[][] rays) {
+        long mask = 0;
+        int row = square / 8;
+        int col = square % 8;
+        for (int[] ray : rays) {
+            int r = row + ray[0];
+            int c = col + ray[1];
+            while (r + ray[0] >= 0 && r + ray[0] < 8 && c + ray[1] >= 0 && c + ray[1] < 8) {
+                mask |= 1L << (r * 8 + c);
+                r += ray[0];
+                c += ray[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void initMagic(int square, int[][] rays, long magic, long[] masks, int[] shifts,
+                                  long[][] tables) {
+        long mask = relevantMask(square, rays);
+        int bits = Long.bitCount(mask);
+        long[] table = new long[1 << bits];
+        long blockers = 0;
+        do { //every subset of the mask, via the carry-rippler trick
+            int index = (int) ((blockers * magic) >>> (64 - bits));
+            long attacks = slide(square, rays, blockers);
+            if (table[index] != 0 && table[index] != attacks) {
+                throw new IllegalStateException("Bad magic number for square " + square);
+            }
+            table[index] = attacks;
+            blockers = (blockers - mask) & mask;
+        } while (blockers != 0);
+        masks[square] = mask;
+        shifts[square] = 64 - bits;
+        tables[square] = table;
+    }
+}
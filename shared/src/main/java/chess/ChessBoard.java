@@ -3,7 +3,6 @@ package chess;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -12,7 +11,23 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessBoard {
-    ChessPiece[][] board;
+    static final int PIECE_KINDS = 12;
+    private static final ChessPiece[] PIECES = new ChessPiece[PIECE_KINDS];
+    private static final String FEN_PIECES = "KQBNRPkqbnrp"; //FEN letter for each piece index
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                PIECES[pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    //One 64-bit board per color/type (white king..pawn, then black king..pawn), bit 0 = a1, bit 63 = h8.
+    long[] pieces;
+    long[] occupancy; //all white pieces, all black pieces
+    long zobristKey; //kept up to date on every change, see Zobrist
+    int positionScore; //material + piece-square score for white, also kept up to date, see PieceSquareTables
     public static void main(String[] args) {
         ChessBoard board1 = new ChessBoard();
         ChessBoard board2 = new ChessBoard();
@@ -48,7 +63,38 @@ public class ChessBoard {
         System.out.println(board2.toStringBoard());
     }
     public ChessBoard() {
-        board = new ChessPiece[8][8];
+        pieces = new long[PIECE_KINDS];
+        occupancy = new long[2];
+    }
+
+    /**
+     * @return the square index (0-63, a1 = 0, h8 = 63) for a 1-based row and column
+     */
+    public static int squareOf(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the index of the bitboard holding pieces of this color and type
+     */
+    public static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return the shared ChessPiece for a bitboard index from {@link #pieceIndex}
+     */
+    public static ChessPiece pieceOf(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
+    private static int squareOf(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            throw new IllegalArgumentException("Position is off the board: " + position);
+        }
+        return squareOf(row, col);
     }
 
     /**
@@ -58,8 +104,11 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow()-1][position.getColumn()-1] = piece; //Subtract 1 because of 0 index, but rows and columns are 1-8, not 0-7.
-        //Maybe add bounds checking and error handling later.
+        int square = squareOf(position);
+        clearSquare(square);
+        if (piece != null) {
+            setSquare(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -70,7 +119,161 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow()-1][position.getColumn()-1];
+        int index = pieceAt(squareOf(position));
+        return index < 0 ? null : PIECES[index];
+    }
+
+    /**
+     * @return the bitboard index of the piece on a square (0-63), or -1 if it is empty
+     */
+    public int pieceAt(int square) {
+        long bit = 1L << square;
+        int first;
+        if ((occupancy[0] & bit) != 0) {
+            first = 0;
+        } else if ((occupancy[1] & bit) != 0) {
+            first = 6;
+        } else {
+            return -1;
+        }
+        for (int i = first; i < first + 6; i++) {
+            if ((pieces[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the bitboard of every square holding this kind of piece
+     */
+    public long getBitboard(int pieceIndex) {
+        return pieces[pieceIndex];
+    }
+
+    /**
+     * @return the bitboard of every square holding a piece of this color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return occupancy[color.ordinal()];
+    }
+
+    /**
+     * @return the bitboard of every occupied square
+     */
+    public long getOccupancy() {
+        return occupancy[0] | occupancy[1];
+    }
+
+    /**
+     * Finds a team's king without scanning the board. The king bitboard is kept up to date by
+     * addPiece, movePiece, makeMove, resetBoard and copy, so this is a single bit scan.
+     *
+     * @return the king's square (0-63), or -1 if that team has no king on the board
+     */
+    public int kingSquare(ChessGame.TeamColor color) {
+        long king = pieces[color.ordinal() * 6 + ChessPiece.PieceType.KING.ordinal()];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * @return where the team's king is, or null if it has none
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquare(color);
+        return square < 0 ? null : ChessPosition.ofSquare(square);
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on this board (side to move not included)
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return material plus piece-square score in centipawns, positive when white is ahead
+     */
+    public int positionScore() {
+        return positionScore;
+    }
+
+    void setSquare(int square, int pieceIndex) {
+        long bit = 1L << square;
+        pieces[pieceIndex] |= bit;
+        occupancy[pieceIndex / 6] |= bit;
+        zobristKey ^= Zobrist.piece(pieceIndex, square);
+        positionScore += PieceSquareTables.score(pieceIndex, square);
+    }
+
+    void clearSquare(int square) {
+        int index = pieceAt(square);
+        if (index >= 0) {
+            long bit = 1L << square;
+            pieces[index] &= ~bit;
+            occupancy[index / 6] &= ~bit;
+            zobristKey ^= Zobrist.piece(index, square);
+            positionScore -= PieceSquareTables.score(index, square);
+        }
+    }
+
+    /**
+     * Plays an encoded move (see {@link Move}) on this board in place, capturing whatever
+     * is on the end square and swapping in the promotion piece if there is one.
+     * The start square must hold a piece.
+     *
+     * @return an undo record to hand back to {@link #unmakeMove}
+     */
+    public int makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moved = pieceAt(from);
+        int captured = pieceAt(to);
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        if (captured >= 0) {
+            pieces[captured] &= ~toBit;
+            occupancy[captured / 6] &= ~toBit;
+        }
+        pieces[moved] &= ~fromBit;
+        occupancy[moved / 6] &= ~fromBit;
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        int placed = (promotion == null) ? moved : (moved / 6) * 6 + promotion.ordinal();
+        pieces[placed] |= toBit;
+        occupancy[placed / 6] |= toBit;
+        zobristKey ^= Zobrist.piece(moved, from) ^ Zobrist.piece(placed, to)
+                ^ (captured >= 0 ? Zobrist.piece(captured, to) : 0L);
+        positionScore += PieceSquareTables.score(placed, to) - PieceSquareTables.score(moved, from)
+                - (captured >= 0 ? PieceSquareTables.score(captured, to) : 0);
+        return moved | ((captured + 1) << 4);
+    }
+
+    /**
+     * Takes back a move played with {@link #makeMove}, restoring the board exactly.
+     *
+     * @param move the move that was made
+     * @param undo the record makeMove returned for it
+     */
+    public void unmakeMove(int move, int undo) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moved = undo & 0xF;
+        int captured = (undo >>> 4) - 1;
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        int placed = pieceAt(to);
+        pieces[placed] &= ~toBit;
+        occupancy[placed / 6] &= ~toBit;
+        pieces[moved] |= fromBit;
+        occupancy[moved / 6] |= fromBit;
+        if (captured >= 0) {
+            pieces[captured] |= toBit;
+            occupancy[captured / 6] |= toBit;
+        }
+        zobristKey ^= Zobrist.piece(moved, from) ^ Zobrist.piece(placed, to)
+                ^ (captured >= 0 ? Zobrist.piece(captured, to) : 0L);
+        positionScore -= PieceSquareTables.score(placed, to) - PieceSquareTables.score(moved, from)
+                - (captured >= 0 ? PieceSquareTables.score(captured, to) : 0);
     }
 
     public void movePiece(ChessMove move){
@@ -80,14 +283,14 @@ public class ChessBoard {
 
     public Collection<ChessPosition> getPiecePositions(ChessPiece piece){
         ArrayList<ChessPosition> piecePositions = new ArrayList<ChessPosition>();
-        ChessPosition position;
-        for(int row=1;row<=8;row++){
-            for(int col=1;col<=8;col++){
-                position = new ChessPosition(row, col);
-                if(getPiece(position)!= null && getPiece(position).equals(piece)) {
-                    piecePositions.add(position);
-                }
-            }
+        if (piece == null) {
+            return piecePositions;
+        }
+        long bits = pieces[pieceIndex(piece.getTeamColor(), piece.getPieceType())];
+        while (bits != 0) { //walk the set bits low to high, which is the same row-by-row order as before
+            int square = Long.numberOfTrailingZeros(bits);
+            piecePositions.add(ChessPosition.ofSquare(square));
+            bits &= bits - 1;
         }
         return piecePositions;
     }
@@ -96,28 +299,31 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        board = new ChessPiece[8][8];
-        this.addPiece(new ChessPosition(8,1),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        this.addPiece(new ChessPosition(8,8),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        this.addPiece(new ChessPosition(8,2),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(8,7),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(8,3),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(8,6),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(8,4),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        this.addPiece(new ChessPosition(8,5),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-
-        this.addPiece(new ChessPosition(1,1),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        this.addPiece(new ChessPosition(1,8),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        this.addPiece(new ChessPosition(1,2),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(1,7),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(1,3),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(1,6),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(1,4),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        this.addPiece(new ChessPosition(1,5),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(occupancy, 0L);
+        zobristKey = 0L;
+        positionScore = 0;
+        this.addPiece(ChessPosition.of(8,1),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(8,8),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(8,2),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(8,7),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(8,3),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(8,6),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(8,4),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        this.addPiece(ChessPosition.of(8,5),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+
+        this.addPiece(ChessPosition.of(1,1),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(1,8),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(1,2),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(1,7),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(1,3),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(1,6),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(1,4),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        this.addPiece(ChessPosition.of(1,5),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
 
         for (int i = 1; i <= 8 ; i++) {
-            this.addPiece(new ChessPosition(7,i),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-            this.addPiece(new ChessPosition(2,i),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            this.addPiece(ChessPosition.of(7,i),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            this.addPiece(ChessPosition.of(2,i),new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
     }
 
@@ -128,26 +334,12 @@ public class ChessBoard {
         }
         ChessBoard that = (ChessBoard) o;
         if (this == o) {return true;}
-        //System.out.println("this board:\n" + this.toStringBoard());
-        //System.out.println("that board:\n" + that.toStringBoard());
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPiece thisPiece = this.getPiece(new ChessPosition(i,j));
-                ChessPiece thatPiece = that.getPiece(new ChessPosition(i,j));
-
-                if (!Objects.equals(thisPiece, thatPiece)) {
-                    return false;
-                }
-
-            }
-        }
-        return true;
+        return Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        //System.out.println(this.toStringBoard());
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(zobristKey);
     }
 
     public String toStringBoard() {
@@ -155,7 +347,7 @@ public class ChessBoard {
         for (int i = 8; i >=1; i--) {
             for (int j = 1; j <= 8; j++) {
 
-                ChessPiece thisPiece = this.getPiece(new ChessPosition(i,j));
+                ChessPiece thisPiece = this.getPiece(ChessPosition.of(i,j));
                 if(thisPiece==null){
                     if((i+j)%2==1){//white square. odd = white, even = black.
                         boardString.append("░");
@@ -170,13 +362,95 @@ public class ChessBoard {
         }
         return boardString.toString();
     }
-    public ChessBoard copy(){
-        ChessBoard newBoard = new ChessBoard();
-        for(int row=0;row<8;row++){
-            for(int col=0;col<8;col++){
-                newBoard.board[row][col]=board[row][col];
+    /**
+     * Reads the piece placement field of a FEN string ("rnbqkbnr/pppppppp/8/...").
+     * Anything after the first space is ignored, so a full FEN works too.
+     *
+     * @throws IllegalArgumentException if the placement field is malformed
+     */
+    public static ChessBoard fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        board.readPlacement(fen);
+        return board;
+    }
+
+    /**
+     * Fills this (empty) board from the placement field at the start of a FEN string.
+     *
+     * @return the index just past the placement field
+     */
+    int readPlacement(String fen) {
+        int row = 8;
+        int col = 1;
+        int i = 0;
+        while (i < fen.length() && fen.charAt(i) != ' ') {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Bad FEN rank " + (9 - row) + ": " + fen);
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int index = FEN_PIECES.indexOf(c);
+                if (index < 0 || col > 8) {
+                    throw new IllegalArgumentException("Bad FEN piece '" + c + "': " + fen);
+                }
+                setSquare(squareOf(row, col), index);
+                col++;
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("Too many squares on FEN rank " + (9 - row) + ": " + fen);
+            }
+            i++;
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("FEN placement doesn't cover 64 squares: " + fen);
+        }
+        return i;
+    }
+
+    /**
+     * @return the piece placement field of a FEN string for this board
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(72);
+        appendPlacement(fen);
+        return fen.toString();
+    }
+
+    void appendPlacement(StringBuilder fen) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int index = pieceAt(squareOf(row, col));
+                if (index < 0) {
+                    empty++;
+                } else {
+                    if (empty > 0) {
+                        fen.append((char) ('0' + empty));
+                        empty = 0;
+                    }
+                    fen.append(FEN_PIECES.charAt(index));
+                }
+            }
+            if (empty > 0) {
+                fen.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                fen.append('/');
             }
         }
+    }
+
+    public ChessBoard copy(){
+        ChessBoard newBoard = new ChessBoard();
+        System.arraycopy(pieces, 0, newBoard.pieces, 0, PIECE_KINDS);
+        System.arraycopy(occupancy, 0, newBoard.occupancy, 0, 2);
+        newBoard.zobristKey = zobristKey;
+        newBoard.positionScore = positionScore;
         return newBoard;
     }
 }
@@ -1,6 +1,7 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 
@@ -11,8 +12,33 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessGame {
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // castling rights that survive a move touching each square (a king or rook leaving, or a rook being taken)
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, 15);
+        CASTLING_KEPT[ChessBoard.squareOf(1, 1)] = 15 & ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[ChessBoard.squareOf(1, 8)] = 15 & ~WHITE_KINGSIDE;
+        CASTLING_KEPT[ChessBoard.squareOf(1, 5)] = 15 & ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[ChessBoard.squareOf(8, 1)] = 15 & ~BLACK_QUEENSIDE;
+        CASTLING_KEPT[ChessBoard.squareOf(8, 8)] = 15 & ~BLACK_KINGSIDE;
+        CASTLING_KEPT[ChessBoard.squareOf(8, 5)] = 15 & ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
     private ChessBoard board;
     private TeamColor teamColor;
+    private int castlingRights = WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE;
+    private int enPassantSquare = -1; //square behind a pawn that just moved two, -1 if there isn't one
+    private int halfmoveClock; //moves since the last capture or pawn move, for the fifty-move rule
+    private int fullmoveNumber = 1;
+    private transient GameStatus status; //status of the team to move, null until asked for
+    private transient MoveList legalMoves; //every legal move for the team to move, null until asked for
 
     public ChessGame() {
         board = new ChessBoard();
@@ -20,6 +46,11 @@ public class ChessGame {
         teamColor = TeamColor.WHITE;
     }
 
+    private ChessGame(ChessBoard board, TeamColor teamColor) {
+        this.board = board;
+        this.teamColor = teamColor;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -34,6 +65,8 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         teamColor = team;
+        enPassantSquare = -1;
+        positionChanged();
     }
 
     /**
@@ -44,6 +77,16 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * Where the game stands for the team whose turn it is
+     */
+    public enum GameStatus {
+        IN_PROGRESS,
+        CHECK,
+        CHECKMATE,
+        STALEMATE
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -52,25 +95,84 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        if(board.getPiece(startPosition) == null){ //If that startPosition is empty, return empty valid moves.
-                                                    // If that startPosition is en enemy piece, return empty.
-            return new ArrayList<ChessMove>();
-        }
-        TeamColor pieceColor = board.getPiece(startPosition).getTeamColor();
         ArrayList<ChessMove> validMoves = new ArrayList<ChessMove>();
-        var potentialMoves = board.getPiece(startPosition).pieceMoves(board, startPosition);
-        ChessGame testGame;
-        for(ChessMove move : potentialMoves){ //Make a new board for each move and make sure the move doesn't break any rules.
-            testGame = this.copy();
-            testGame.board.movePiece(move);
+        if(!startPosition.isOnBoard()){
+            return validMoves;
+        }
+        int from = ChessBoard.squareOf(startPosition.getRow(), startPosition.getColumn());
+        int pieceIndex = board.pieceAt(from);
+        if(pieceIndex < 0){ //If that startPosition is empty, return empty valid moves.
+            return validMoves;
+        }
+        TeamColor pieceColor = ChessBoard.pieceOf(pieceIndex).getTeamColor();
+        if(pieceColor == teamColor){ //The team to move is served out of the cached legal moves.
+            MoveList allMoves = legalMoves();
+            for(int i = 0; i < allMoves.size(); i++){
+                if(Move.from(allMoves.get(i)) == from){
+                    validMoves.add(Move.toChessMove(allMoves.get(i)));
+                }
+            }
+            return validMoves;
+        }
+        MoveList potentialMoves = new MoveList(32);
+        MoveGenerator.generatePieceMoves(board, from, potentialMoves);
+        filterLegal(pieceColor, potentialMoves);
+        for(int i = 0; i < potentialMoves.size(); i++){
+            validMoves.add(Move.toChessMove(potentialMoves.get(i)));
+        }
+        return validMoves;
+    }
 
-            if(!testGame.isInCheck(pieceColor)){
-                //If that pieceColor is not in check after the potential move, then add it to valid moves.
-                validMoves.add(move);
+    /**
+     * Gets every valid move for the team whose turn it is
+     *
+     * @return all valid moves, empty if the team is checkmated or stalemated
+     */
+    public Collection<ChessMove> allValidMoves() {
+        MoveList allMoves = legalMoves();
+        ArrayList<ChessMove> validMoves = new ArrayList<ChessMove>(allMoves.size());
+        for(int i = 0; i < allMoves.size(); i++){
+            validMoves.add(Move.toChessMove(allMoves.get(i)));
+        }
+        return validMoves;
+    }
 
+    /**
+     * Every legal move for the team to move, generated once per position and shared by
+     * validMoves, makeMove and getStatus. Callers must not change the returned list.
+     */
+    MoveList legalMoves() {
+        MoveList moves = legalMoves;
+        if(moves == null){
+            moves = new MoveList();
+            MoveGenerator.generateMoves(board, teamColor, moves);
+            filterLegal(teamColor, moves);
+            legalMoves = moves;
+        }
+        return moves;
+    }
+
+    /**
+     * Drops the moves that would leave pieceColor's king in check, trying each one
+     * on the real board and taking it back.
+     */
+    private void filterLegal(TeamColor pieceColor, MoveList moves) {
+        int kept = 0;
+        for(int i = 0; i < moves.size(); i++){
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            boolean leavesKingSafe = !isInCheck(pieceColor);
+            board.unmakeMove(move, undo);
+            if(leavesKingSafe){
+                moves.set(kept++, move);
             }
         }
-        return validMoves;
+        moves.truncate(kept);
+    }
+
+    private void positionChanged() {
+        status = null;
+        legalMoves = null;
     }
 
     /**
@@ -80,27 +182,45 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        if(!validMoves(move.getStartPosition()).contains(move)
-                || !board.getPiece(move.getStartPosition()).getTeamColor().equals(teamColor)){
+        if(!isValidMove(move)){
             // if the move isn't a valid move, or the piece is the wrong color...
 
             throw new InvalidMoveException("Waaaah boo hoo invalid move I'll come and make " +
                     "this a good exception later(9/20/25). Well, it's later, and I'm not fixing it(11/3/25.");
         }
-        var pieceColor = board.getPiece(move.getStartPosition()).getTeamColor();
-        var start = move.getStartPosition();
-        var end = move.getEndPosition();
-        var piece = board.getPiece(start);
-        if(move.getPromotionPiece() != null){
-            piece = new ChessPiece(pieceColor, move.getPromotionPiece());
+        int encoded = Move.encode(move);
+        int from = Move.from(encoded);
+        int to = Move.to(encoded);
+        boolean pawnMove = board.pieceAt(from) % 6 == ChessPiece.PieceType.PAWN.ordinal();
+        boolean capture = board.pieceAt(to) >= 0;
+        board.makeMove(encoded);
+
+        halfmoveClock = (pawnMove || capture) ? 0 : halfmoveClock + 1;
+        if (teamColor == TeamColor.BLACK) {
+            fullmoveNumber++;
         }
-        board.addPiece(end, piece);
-        board.addPiece(start, null);
+        enPassantSquare = (pawnMove && Math.abs(to - from) == 16) ? (from + to) / 2 : -1;
+        castlingRights &= CASTLING_KEPT[from] & CASTLING_KEPT[to];
 
         teamColor = (teamColor.equals(TeamColor.WHITE)) ? TeamColor.BLACK : TeamColor.WHITE;
+        positionChanged();
 
     }
 
+    private boolean isValidMove(ChessMove move) {
+        if(!move.getStartPosition().isOnBoard() || !move.getEndPosition().isOnBoard()){
+            return false;
+        }
+        int encoded = Move.encode(move);
+        MoveList allMoves = legalMoves(); //only holds the team to move's pieces, so that's checked too
+        for(int i = 0; i < allMoves.size(); i++){
+            if(allMoves.get(i) == encoded){
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Determines if the given team is in check
      *
@@ -108,38 +228,65 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        Collection<ChessPosition> kingsPositions = board.getPiecePositions(
-                new ChessPiece(teamColor, ChessPiece.PieceType.KING)
-        );
-
-        for (int i = 0; i < 64; i++) {
-            int row = i / 8 + 1; // Rows are 1-based
-            int col = i % 8 + 1; // Columns are 1-based
-
-            ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                if (piece == null || piece.getTeamColor().equals(teamColor)) {
-                    continue; // Skip empty squares and friendly pieces
-                }
+        int kingSquare = board.kingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false; // No king on the board to threaten
+        }
+        TeamColor enemyColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return MoveGenerator.isSquareAttacked(board, kingSquare, enemyColor);
+    }
 
-                Collection<ChessMove> movesToCheck = piece.pieceMoves(board, position);
-
-                for (ChessPosition kingsPosition : kingsPositions) {
-                    // Check all promotion types including null
-                    for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
-                        if (movesToCheck.contains(new ChessMove(position, kingsPosition, type))) {
-                            return true;
-                        }
-                    }
-                    if (movesToCheck.contains(new ChessMove(position, kingsPosition, null))) {
-                        return true;
-                    }
+    /**
+     * Checks whether a team has at least one legal move, stopping at the first one found
+     */
+    private boolean hasAnyValidMoves(TeamColor teamColor) {
+        if (teamColor == this.teamColor && legalMoves != null) {
+            return !legalMoves.isEmpty();
+        }
+        MoveList moves = new MoveList(32);
+        long own = board.getOccupancy(teamColor);
+        while (own != 0) {
+            moves.clear();
+            int count = MoveGenerator.generatePieceMoves(board, Long.numberOfTrailingZeros(own), moves);
+            for (int i = 0; i < count; i++) {
+                int move = moves.get(i);
+                int undo = board.makeMove(move);
+                boolean leavesKingSafe = !isInCheck(teamColor);
+                board.unmakeMove(move, undo);
+                if (leavesKingSafe) {
+                    return true; // Found at least one valid move
                 }
             }
+            own &= own - 1;
+        }
+        return false; // No valid moves found
+    }
 
+    /**
+     * Works out check, checkmate and stalemate for the team whose turn it is in one pass.
+     * The answer is cached until the next makeMove, setBoard or setTeamTurn.
+     *
+     * @return the status of the team to move
+     */
+    public GameStatus getStatus() {
+        GameStatus current = status;
+        if (current == null) {
+            current = computeStatus(teamColor);
+            status = current;
+        }
+        return current;
+    }
 
-        return false; // No moves found that threaten the king
+    private GameStatus computeStatus(TeamColor teamColor) {
+        boolean inCheck = isInCheck(teamColor);
+        if (hasAnyValidMoves(teamColor)) {
+            return inCheck ? GameStatus.CHECK : GameStatus.IN_PROGRESS;
+        }
+        return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+    }
+
+    private GameStatus statusOf(TeamColor teamColor) {
+        return (teamColor == this.teamColor) ? getStatus() : computeStatus(teamColor);
     }
 
     /**
@@ -148,26 +295,19 @@ public class ChessGame {
      * @param teamColor which team to check for checkmate
      * @return True if the specified team is in checkmate
      */
-    private boolean hasAnyValidMoves(TeamColor teamColor) {
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                if (board.getPiece(position) != null &&
-                        board.getPiece(position).getTeamColor().equals(teamColor) &&
-                        !validMoves(position).isEmpty()) {
-                    return true; // Found at least one valid move
-                }
-            }
-        }
-        return false; // No valid moves found
-    }
-
     public boolean isInCheckmate(TeamColor teamColor) {
-        return !hasAnyValidMoves(teamColor) && isInCheck(teamColor);
+        return statusOf(teamColor) == GameStatus.CHECKMATE;
     }
 
+    /**
+     * Determines if the given team is in stalemate, which here is defined as having
+     * no valid moves while not in check
+     *
+     * @param teamColor which team to check for stalemate
+     * @return True if the specified team is in stalemate
+     */
     public boolean isInStalemate(TeamColor teamColor) {
-        return !hasAnyValidMoves(teamColor) && !isInCheck(teamColor);
+        return statusOf(teamColor) == GameStatus.STALEMATE;
     }
 
     /**
@@ -177,6 +317,8 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board.copy();
+        enPassantSquare = -1;
+        positionChanged();
     }
 
     /**
@@ -188,6 +330,175 @@ public class ChessGame {
         return board.copy();
     }
 
+    /**
+     * @return the castling rights still held, as WHITE_KINGSIDE | WHITE_QUEENSIDE | ... bits.
+     * Rights are only lost by moving the king or rook, so a hand-built board can claim ones it can't use
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the square a pawn could capture en passant onto this move, or null
+     */
+    public ChessPosition getEnPassantTarget() {
+        return enPassantSquare < 0 ? null : ChessPosition.ofSquare(enPassantSquare);
+    }
+
+    /**
+     * @return half-moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the move number, starting at 1 and going up after each black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return how many half-moves came before this one, worked out from the move number and turn
+     */
+    public int getPly() {
+        return (fullmoveNumber - 1) * 2 + (teamColor == TeamColor.BLACK ? 1 : 0);
+    }
+
+    /**
+     * Puts a game back together from its parts, for decoders that already checked them.
+     */
+    static ChessGame restore(ChessBoard board, TeamColor teamColor, int castlingRights, int enPassantSquare,
+                             int halfmoveClock, int fullmoveNumber) {
+        ChessGame game = new ChessGame(board, teamColor);
+        game.castlingRights = castlingRights;
+        game.enPassantSquare = enPassantSquare;
+        game.halfmoveClock = halfmoveClock;
+        game.fullmoveNumber = fullmoveNumber;
+        return game;
+    }
+
+    /**
+     * Builds a game from a FEN string. The castling, en passant and clock fields can be
+     * left off (as in EPD), in which case they default to "- - 0 1".
+     *
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        ChessBoard board = new ChessBoard();
+        int start = board.readPlacement(fen) + 1;
+        int end = fieldEnd(fen, start);
+        TeamColor color;
+        if (end - start == 1 && fen.charAt(start) == 'w') {
+            color = TeamColor.WHITE;
+        } else if (end - start == 1 && fen.charAt(start) == 'b') {
+            color = TeamColor.BLACK;
+        } else {
+            throw new IllegalArgumentException("Bad FEN side to move: " + fen);
+        }
+        ChessGame game = new ChessGame(board, color);
+        game.castlingRights = 0;
+
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        if (end > start && !(end - start == 1 && fen.charAt(start) == '-')) {
+            for (int i = start; i < end; i++) {
+                int right = "KQkq".indexOf(fen.charAt(i));
+                if (right < 0) {
+                    throw new IllegalArgumentException("Bad FEN castling rights: " + fen);
+                }
+                game.castlingRights |= 1 << right;
+            }
+        }
+
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        if (end > start && !(end - start == 1 && fen.charAt(start) == '-')) {
+            char rank = end - start == 2 ? fen.charAt(start + 1) : '?';
+            if (rank != (color == TeamColor.WHITE ? '6' : '3')) {
+                throw new IllegalArgumentException("Bad FEN en passant square: " + fen);
+            }
+            ChessPosition target = ChessPosition.fromAlgebraic(fen.substring(start, end));
+            game.enPassantSquare = ChessBoard.squareOf(target.getRow(), target.getColumn());
+        }
+
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        if (end > start) {
+            game.halfmoveClock = parseCounter(fen, start, end);
+        }
+
+        start = end + 1;
+        end = fieldEnd(fen, start);
+        if (end > start) {
+            game.fullmoveNumber = parseCounter(fen, start, end);
+        }
+        if (end < fen.length()) {
+            throw new IllegalArgumentException("Unexpected text after FEN: " + fen);
+        }
+        return game;
+    }
+
+    private static int fieldEnd(String fen, int start) {
+        if (start > fen.length()) {
+            return start;
+        }
+        int space = fen.indexOf(' ', start);
+        return space < 0 ? fen.length() : space;
+    }
+
+    private static int parseCounter(String fen, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if (c < '0' || c > '9' || value > 100_000) {
+                throw new IllegalArgumentException("Bad FEN move counter: " + fen);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * @return this game as a FEN string. Castling rights are only written out when the
+     * king and rook are still on their starting squares
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        board.appendPlacement(fen);
+        fen.append(teamColor == TeamColor.WHITE ? " w " : " b ");
+        int rights = castlingRights & castlingPossible();
+        if (rights == 0) {
+            fen.append('-');
+        }
+        for (int i = 0; i < 4; i++) {
+            if ((rights & (1 << i)) != 0) {
+                fen.append("KQkq".charAt(i));
+            }
+        }
+        fen.append(' ');
+        fen.append(enPassantSquare < 0 ? "-" : ChessPosition.ofSquare(enPassantSquare).toAlgebraic());
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    // the rights the board itself still allows, going by where the kings and rooks stand
+    private int castlingPossible() {
+        int possible = 0;
+        long whiteRooks = board.getBitboard(ChessBoard.pieceIndex(TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        long blackRooks = board.getBitboard(ChessBoard.pieceIndex(TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        if (board.kingSquare(TeamColor.WHITE) == ChessBoard.squareOf(1, 5)) {
+            possible |= (whiteRooks & (1L << ChessBoard.squareOf(1, 8))) != 0 ? WHITE_KINGSIDE : 0;
+            possible |= (whiteRooks & (1L << ChessBoard.squareOf(1, 1))) != 0 ? WHITE_QUEENSIDE : 0;
+        }
+        if (board.kingSquare(TeamColor.BLACK) == ChessBoard.squareOf(8, 5)) {
+            possible |= (blackRooks & (1L << ChessBoard.squareOf(8, 8))) != 0 ? BLACK_KINGSIDE : 0;
+            possible |= (blackRooks & (1L << ChessBoard.squareOf(8, 1))) != 0 ? BLACK_QUEENSIDE : 0;
+        }
+        return possible;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -197,9 +508,16 @@ public class ChessGame {
         return Objects.equals(board, chessGame.board) && teamColor == chessGame.teamColor;
     }
 
+    /**
+     * @return a 64-bit Zobrist key for the board and side to move, cheap enough to use as a cache key
+     */
+    public long zobristKey() {
+        return board.zobristKey() ^ (teamColor == TeamColor.BLACK ? Zobrist.sideToMove() : 0L);
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(board, teamColor);
+        return Long.hashCode(zobristKey());
     }
 
     @Override
@@ -211,9 +529,13 @@ public class ChessGame {
     }
 
     public ChessGame copy() {
-        ChessGame copy = new ChessGame();
-        copy.board = board.copy();
-        copy.teamColor = teamColor;
+        ChessGame copy = new ChessGame(board.copy(), teamColor);
+        copy.castlingRights = castlingRights;
+        copy.enPassantSquare = enPassantSquare;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        copy.status = status; //same position, so the cached status and moves still hold
+        copy.legalMoves = legalMoves;
         return copy;
     }
 }
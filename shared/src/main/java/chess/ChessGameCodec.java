@@ -0,0 +1,70 @@
+package chess;
+
+/**
+ * Packs a {@link ChessGame} into a fixed 39-byte record for storage, instead of Gson's
+ * JSON tree of 64 nullable pieces.
+ * <p>
+ * Layout: a version byte; 32 bytes holding a 4-bit code per square (0 empty, otherwise the
+ * piece index + 1, see {@link ChessBoard#pieceIndex}), a1 in the low half of the first byte;
+ * a flags byte (bit 0 set when black is to move, bits 1-4 the castling rights); the en passant
+ * square + 1 (0 for none); then the halfmove clock and fullmove number as big-endian shorts.
+ */
+public final class ChessGameCodec {
+    public static final int VERSION = 1;
+    public static final int LENGTH = 39;
+
+    private ChessGameCodec() {
+    }
+
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[LENGTH];
+        bytes[0] = VERSION;
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = board.pieceAt(square) + 1;
+            bytes[1 + square / 2] |= (byte) (square % 2 == 0 ? code : code << 4);
+        }
+        int flags = (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0) | game.getCastlingRights() << 1;
+        bytes[33] = (byte) flags;
+        ChessPosition enPassant = game.getEnPassantTarget();
+        bytes[34] = (byte) (enPassant == null ? 0 : ChessBoard.squareOf(enPassant.getRow(), enPassant.getColumn()) + 1);
+        putShort(bytes, 35, Math.min(game.getHalfmoveClock(), 0xFFFF));
+        putShort(bytes, 37, Math.min(game.getFullmoveNumber(), 0xFFFF));
+        return bytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes aren't a record this codec wrote
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Not an encoded chess game");
+        }
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = (bytes[1 + square / 2] >> (square % 2 == 0 ? 0 : 4)) & 0xF;
+            if (code > ChessBoard.PIECE_KINDS) {
+                throw new IllegalArgumentException("Bad piece code " + code + " on square " + square);
+            }
+            if (code != 0) {
+                board.setSquare(square, code - 1);
+            }
+        }
+        int flags = bytes[33] & 0xFF;
+        int enPassant = (bytes[34] & 0xFF) - 1;
+        if (flags > 0x1F || enPassant > 63) {
+            throw new IllegalArgumentException("Bad flags in encoded chess game");
+        }
+        ChessGame.TeamColor toMove = (flags & 1) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        return ChessGame.restore(board, toMove, flags >> 1, enPassant, getShort(bytes, 35), getShort(bytes, 37));
+    }
+
+    private static void putShort(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >> 8);
+        bytes[offset + 1] = (byte) value;
+    }
+
+    private static int getShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 8 | (bytes[offset + 1] & 0xFF);
+    }
+}
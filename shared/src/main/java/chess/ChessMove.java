@@ -9,9 +9,12 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessMove {
-    private ChessPosition startPosition;
-    private ChessPosition endPosition;
-    private ChessPiece.PieceType promotionPiece;
+    //Every from/to/promotion combination, filled in the first time each one is asked for.
+    private static final ChessMove[] MOVES = new ChessMove[64 * 64 * 7];
+
+    private final ChessPosition startPosition;
+    private final ChessPosition endPosition;
+    private final ChessPiece.PieceType promotionPiece;
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition,
                      ChessPiece.PieceType promotionPiece) {
         this.startPosition = startPosition;
@@ -19,6 +22,32 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Gets the shared instance of a move instead of allocating a new one.
+     *
+     * @param from      start square (0-63, see {@link ChessBoard#squareOf})
+     * @param to        end square
+     * @param promotion piece to promote to, or null
+     */
+    public static ChessMove of(int from, int to, ChessPiece.PieceType promotion) {
+        int index = ((promotion == null ? 0 : promotion.ordinal() + 1) * 64 + to) * 64 + from;
+        ChessMove move = MOVES[index];
+        if (move == null) { //racing threads may both build it, which is harmless since moves are immutable
+            move = new ChessMove(ChessPosition.ofSquare(from), ChessPosition.ofSquare(to), promotion);
+            MOVES[index] = move;
+        }
+        return move;
+    }
+
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (!startPosition.isOnBoard() || !endPosition.isOnBoard()) {
+            return new ChessMove(startPosition, endPosition, promotionPiece);
+        }
+        return of(ChessBoard.squareOf(startPosition.getRow(), startPosition.getColumn()),
+                ChessBoard.squareOf(endPosition.getRow(), endPosition.getColumn()), promotionPiece);
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -12,6 +12,7 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPiece {
+    private static final int MAX_PIECE_MOVES = 32; //a queen in the middle of an empty board has 27
 
     private ChessGame.TeamColor pieceColor;
     private PieceType pieceType;
@@ -55,136 +56,14 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        List<ChessMove> moves = new ArrayList<>();
-
-        switch(board.getPiece(myPosition).getPieceType()){
-            case KING:
-                moves.addAll(kingMoves(board, myPosition));
-                break;
-            case QUEEN:
-                moves.addAll(queenMoves(board, myPosition));
-                break;
-            case BISHOP:
-                moves.addAll(bishopMoves(board, myPosition));
-                break;
-            case ROOK:
-                moves.addAll(rookMoves(board, myPosition));
-                break;
-            case KNIGHT:
-                moves.addAll(knightMoves(board, myPosition));
-                break;
-            case PAWN:
-                moves.addAll(pawnMoves(board, myPosition));
-                break;
-            default:
-                throw new IllegalArgumentException("Piece is... not a piece?");
+        //Thin adapter over MoveGenerator, which does the real work on encoded moves.
+        MoveList buffer = new MoveList(MAX_PIECE_MOVES);
+        int count = MoveGenerator.generatePieceMoves(board,
+                ChessBoard.squareOf(myPosition.getRow(), myPosition.getColumn()), buffer);
+        List<ChessMove> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(Move.toChessMove(buffer.get(i)));
         }
-
-        return moves;
-    }
-    private boolean isInBounds(ChessPosition potentialPosition){
-        //Both row and column are between 1 and 8
-        return potentialPosition.getRow() >= 1
-                && potentialPosition.getRow() <= 8
-                && potentialPosition.getColumn() >= 1
-                && potentialPosition.getColumn() <= 8;
-    }
-    private boolean isValidMovePosition(ChessBoard board, ChessPosition potentialPosition, ChessGame.TeamColor color){
-
-        if(isInBounds(potentialPosition)){//Both row and column are between 1 and 8
-            ChessPiece potentialPositionPiece = board.getPiece(potentialPosition);
-            //If the space is empty or occupied by a piece not of the same color.
-            return potentialPositionPiece == null || !color.equals(potentialPositionPiece.getTeamColor());
-        }
-        return false;
-    }
-
-    private Collection<ChessMove> getSlideMoves(ChessBoard board, ChessPosition myPosition, int[][] directions, boolean recurse){
-        List<ChessMove> moves = new ArrayList<>();
-
-        for(int[] direction : directions){
-            int rowDir = direction[0];
-            int colDir = direction[1];
-            int distance = 1;
-            ChessPosition potentialPosition = myPosition;
-            do{
-                potentialPosition = new ChessPosition(myPosition.getRow() + rowDir * distance, myPosition.getColumn() + colDir * distance);
-
-                if(isValidMovePosition(board, potentialPosition, board.getPiece(myPosition).getTeamColor())){
-                    //If it's a valid position, add piece, but stop if the position is on a piece.
-                    moves.add(new ChessMove(myPosition, potentialPosition, null));
-
-                    if(board.getPiece(potentialPosition) != null) {
-                        break;
-                    }
-                } else {
-                    break;
-                }
-
-                distance++;
-
-            } while(recurse);
-        }
-        return moves;
-    }
-    private Collection<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition){
-        int[][] directions = {{-1,-1},{-1,0},{-1,1},{0,-1},{0,0},{0,1},{1,-1},{1,0},{1,1}};
-        return getSlideMoves(board,myPosition, directions,false);
-    }
-    private Collection<ChessMove> queenMoves(ChessBoard board, ChessPosition myPosition){
-        int[][] directions = {{-1,-1},{-1,0},{-1,1},{0,-1},{0,0},{0,1},{1,-1},{1,0},{1,1}};
-        return getSlideMoves(board,myPosition, directions,true);
-    }
-    private Collection<ChessMove> bishopMoves(ChessBoard board, ChessPosition myPosition){
-        int[][] directions = {{-1,-1},{-1,1},{0,0},{1,-1},{1,1}};
-        return getSlideMoves(board,myPosition, directions,true);
-    }
-    private Collection<ChessMove> rookMoves(ChessBoard board, ChessPosition myPosition){
-        int[][] directions = {{-1,0},{0,-1},{0,0},{0,1},{1,0}};
-        return getSlideMoves(board,myPosition, directions,true);
-    }
-    private Collection<ChessMove> knightMoves(ChessBoard board, ChessPosition myPosition){
-        int[][] directions = {{2,1},{2,-1},{-2,1},{-2,-1},{1,2},{1,-2},{-1,2},{-1,-2}};
-        return getSlideMoves(board,myPosition, directions,false);
-    }
-    private Collection<ChessMove> pawnMoves(ChessBoard board, ChessPosition myPosition){
-        List<ChessMove> moves = new ArrayList<>();
-        ChessPosition potentialPosition;
-
-        int direction = (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.WHITE) ? 1 : -1;
-        int startingRow = (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.WHITE) ? 2 : 7;
-        int promotableRow = (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.WHITE) ? 7 : 2;
-
-        potentialPosition = new ChessPosition(myPosition.getRow()+direction,myPosition.getColumn());//Consider the spot right it front
-        if(board.getPiece(potentialPosition) == null){//the spot in front is empty
-            moves.add(new ChessMove(myPosition, potentialPosition, null));//add move
-            potentialPosition = new ChessPosition(myPosition.getRow()+2*direction,myPosition.getColumn());
-            if(myPosition.getRow()==startingRow&&(board.getPiece(potentialPosition) == null)) {//If it's the pawn's first move and the spot's open,
-                moves.add(new ChessMove(myPosition,potentialPosition, null));//add move
-            }
-        }
-
-        for (int i = -1; i <=1 ; i+=2) {//for the pawn's left and right side
-            potentialPosition = new ChessPosition(myPosition.getRow()+direction,myPosition.getColumn()+i);
-            if(isInBounds(potentialPosition)&& board.getPiece(potentialPosition)!=null
-                    && board.getPiece(potentialPosition).getTeamColor()!=board.getPiece(myPosition).getTeamColor()){
-                //If the side corners are in bounds and the piece isn't null and the piece is not the same color...
-                moves.add(new ChessMove(myPosition,potentialPosition, null));
-            }
-        }
-
-        if(myPosition.getRow()==promotableRow) {//adds promotion pieces
-            List<ChessMove> promotionMoves = new ArrayList<>();
-            for(ChessMove move:moves){
-                promotionMoves.add(new ChessMove(move.getStartPosition(),move.getEndPosition(),PieceType.KNIGHT));
-                promotionMoves.add(new ChessMove(move.getStartPosition(),move.getEndPosition(),PieceType.ROOK));
-                promotionMoves.add(new ChessMove(move.getStartPosition(),move.getEndPosition(),PieceType.BISHOP));
-                promotionMoves.add(new ChessMove(move.getStartPosition(),move.getEndPosition(),PieceType.QUEEN));
-            }
-            moves.clear();
-            moves.addAll(promotionMoves);
-        }
-
         return moves;
     }
 
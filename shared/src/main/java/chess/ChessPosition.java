@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -9,13 +7,39 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPosition {
-    int row;
-    int col;
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
+    final int row;
+    final int col;
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a square instead of allocating a new one.
+     * Positions off the board still work, they just aren't cached.
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    /**
+     * @return the shared instance for a square index (0-63, see {@link ChessBoard#squareOf})
+     */
+    public static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -32,6 +56,36 @@ public class ChessPosition {
         return col;
     }
 
+    /**
+     * @return whether this position is one of the 64 squares
+     */
+    public boolean isOnBoard() {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    /**
+     * @return the square in algebraic notation, like "e4"
+     */
+    public String toAlgebraic() {
+        return String.valueOf((char) ('a' + col - 1)) + (char) ('0' + row);
+    }
+
+    /**
+     * @return the shared instance for a square in algebraic notation, like "e4"
+     * @throws IllegalArgumentException if the text isn't a square name
+     */
+    public static ChessPosition fromAlgebraic(String square) {
+        if (square.length() != 2) {
+            throw new IllegalArgumentException("Not a square: " + square);
+        }
+        int col = square.charAt(0) - 'a' + 1;
+        int row = square.charAt(1) - '0';
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            throw new IllegalArgumentException("Not a square: " + square);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -43,7 +97,7 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * (31 + row) + col; //same value as Objects.hash(row, col), minus the varargs array
     }
 
     @Override
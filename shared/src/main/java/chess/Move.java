@@ -0,0 +1,59 @@
+package chess;
+
+/**
+ * Packs a move into a single int so move generation can work without allocating.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square (see {@link ChessBoard#squareOf})
+ * and bits 12-14 the promotion piece (0 for none, otherwise PieceType ordinal + 1).
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, ChessPiece.PieceType promotion) {
+        int move = from | (to << 6);
+        if (promotion != null) {
+            move |= (promotion.ordinal() + 1) << 12;
+        }
+        return move;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece, or null if this move doesn't promote
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 0x7;
+        return code == 0 ? null : TYPES[code - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move >>> 12) != 0;
+    }
+
+    public static int encode(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        return of(ChessBoard.squareOf(start.getRow(), start.getColumn()),
+                ChessBoard.squareOf(end.getRow(), end.getColumn()), move.getPromotionPiece());
+    }
+
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(from(move), to(move), promotion(move));
+    }
+}
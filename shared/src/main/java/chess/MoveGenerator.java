@@ -0,0 +1,173 @@
+package chess;
+
+/**
+ * Generates pseudo-legal moves (moves that may still leave the king in check) straight
+ * into a {@link MoveList}, without allocating positions, moves or direction tables.
+ * Target squares come from the precomputed tables in {@link Attacks}.
+ */
+public final class MoveGenerator {
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    private static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    private static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    private static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+
+    //Same order pieceMoves has always produced promotions in.
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.QUEEN};
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends every pseudo-legal move for the given team.
+     *
+     * @return how many moves were appended
+     */
+    public static int generateMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        int before = moves.size();
+        long own = board.getOccupancy(color);
+        while (own != 0) {
+            generatePieceMoves(board, Long.numberOfTrailingZeros(own), moves);
+            own &= own - 1;
+        }
+        return moves.size() - before;
+    }
+
+    /**
+     * Appends the pseudo-legal moves of the piece on a square (0-63).
+     *
+     * @return how many moves were appended, 0 if the square is empty
+     */
+    public static int generatePieceMoves(ChessBoard board, int from, MoveList moves) {
+        int pieceIndex = board.pieceAt(from);
+        if (pieceIndex < 0) {
+            return 0;
+        }
+        int before = moves.size();
+        int color = pieceIndex / 6;
+        int type = pieceIndex % 6;
+        if (type == PAWN) {
+            addPawnMoves(board, from, color, moves);
+        } else {
+            addTargets(from, attacks(type, from, board.getOccupancy()) & ~board.occupancy[color], moves);
+        }
+        return moves.size() - before;
+    }
+
+    /**
+     * @return the squares a non-pawn piece of this type on this square attacks
+     */
+    public static long attacks(int type, int square, long occupied) {
+        if (type == KNIGHT) {
+            return Attacks.knight(square);
+        } else if (type == BISHOP) {
+            return Attacks.bishop(square, occupied);
+        } else if (type == ROOK) {
+            return Attacks.rook(square, occupied);
+        } else if (type == QUEEN) {
+            return Attacks.queen(square, occupied);
+        } else if (type == KING) {
+            return Attacks.king(square);
+        }
+        throw new IllegalArgumentException("Piece is... not a piece?");
+    }
+
+    /**
+     * Checks whether any piece of the given team attacks a square, by looking outward from
+     * the square: slider rays, knight jumps, pawn diagonals and the squares next to it.
+     *
+     * @param square   the square (0-63) to test
+     * @param attacker the team that might be attacking it
+     */
+    public static boolean isSquareAttacked(ChessBoard board, int square, ChessGame.TeamColor attacker) {
+        int color = attacker.ordinal();
+        int base = color * 6;
+        long[] pieces = board.pieces;
+        //A pawn attacks this square from exactly where a defending pawn here would attack.
+        if ((Attacks.pawn(color ^ 1, square) & pieces[base + PAWN]) != 0
+                || (Attacks.knight(square) & pieces[base + KNIGHT]) != 0
+                || (Attacks.king(square) & pieces[base + KING]) != 0) {
+            return true;
+        }
+        long queens = pieces[base + QUEEN];
+        long occupied = board.getOccupancy();
+        return (Attacks.bishop(square, occupied) & (pieces[base + BISHOP] | queens)) != 0
+                || (Attacks.rook(square, occupied) & (pieces[base + ROOK] | queens)) != 0;
+    }
+
+    /**
+     * Checks a single move without generating the whole move list: the piece must belong to
+     * the team, be able to make the move, and not leave its own king in check. The board is
+     * changed while checking but left as it was.
+     */
+    public static boolean isLegal(ChessBoard board, ChessGame.TeamColor color, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int pieceIndex = board.pieceAt(from);
+        if (pieceIndex < 0 || pieceIndex / 6 != color.ordinal()) {
+            return false;
+        }
+        int type = pieceIndex % 6;
+        if (type == PAWN) {
+            ChessPiece.PieceType promotion = Move.promotion(move);
+            boolean promotes = ((RANK_1 | RANK_8) & (1L << to)) != 0;
+            if ((pawnTargets(board, from, color.ordinal()) & (1L << to)) == 0 || promotes != (promotion != null)
+                    || promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) {
+                return false;
+            }
+        } else if (Move.isPromotion(move)
+                || (attacks(type, from, board.getOccupancy()) & ~board.occupancy[color.ordinal()] & (1L << to)) == 0) {
+            return false;
+        }
+        int undo = board.makeMove(move);
+        int king = board.kingSquare(color);
+        boolean safe = king < 0 || !isSquareAttacked(board, king, ChessGame.TeamColor.values()[color.ordinal() ^ 1]);
+        board.unmakeMove(move, undo);
+        return safe;
+    }
+
+    private static void addTargets(int from, long targets, MoveList moves) {
+        while (targets != 0) {
+            moves.add(Move.of(from, Long.numberOfTrailingZeros(targets)));
+            targets &= targets - 1;
+        }
+    }
+
+    private static void addPawnMoves(ChessBoard board, int from, int color, MoveList moves) {
+        long targets = pawnTargets(board, from, color);
+        boolean promotes = (targets & (RANK_1 | RANK_8)) != 0;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (promotes) {
+                for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                    moves.add(Move.of(from, to, promotion));
+                }
+            } else {
+                moves.add(Move.of(from, to));
+            }
+            targets &= targets - 1;
+        }
+    }
+
+    // the squares a pawn can push or capture to
+    private static long pawnTargets(ChessBoard board, int from, int color) {
+        long empty = ~board.getOccupancy();
+        long bit = 1L << from;
+        long single;
+        long targets;
+        if (color == 0) {
+            single = (bit << 8) & empty;
+            targets = single | ((single & (0xFFL << 16)) << 8 & empty); //a second step from the starting row
+        } else {
+            single = (bit >>> 8) & empty;
+            targets = single | ((single & (0xFFL << 40)) >>> 8 & empty);
+        }
+        return targets | (Attacks.pawn(color, from) & board.occupancy[color ^ 1]);
+    }
+}
@@ -0,0 +1,54 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of encoded moves (see {@link Move}). Callers hold on to one
+ * of these and {@link #clear()} it between uses so generating moves doesn't allocate.
+ */
+public class MoveList {
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(256); //more than the number of pseudo-legal moves in any real position
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from index on, so a caller can undo what it appended.
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+}
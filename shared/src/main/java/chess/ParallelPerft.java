@@ -0,0 +1,126 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Runs perft and bulk game validation across a ForkJoinPool. Perft splits the move tree
+ * near the root into one task per move, each working on its own board copy; validation
+ * hands each game to a worker that replays it on its own ChessGame.
+ */
+public class ParallelPerft {
+    //Deep searches also split at the second ply, so a 20-40 move root still fills every core.
+    private static final int SPLIT_TWICE_DEPTH = 5;
+
+    private final ForkJoinPool pool;
+
+    public ParallelPerft() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelPerft(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Node count and timing for one perft depth
+     */
+    public record Result(int depth, long nodes, long nanos) {
+        public double nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes / (nanos / 1e9);
+        }
+    }
+
+    /**
+     * @return the same count as {@link Perft#perft(ChessGame, int)}, computed in parallel
+     */
+    public long perft(ChessGame game, int depth) {
+        if (depth <= 2) {
+            return Perft.perft(game, depth); //too small to be worth splitting
+        }
+        int splitPlies = depth >= SPLIT_TWICE_DEPTH ? 2 : 1;
+        return pool.invoke(new PerftTask(game.getBoard(), game.getTeamTurn(), depth, splitPlies));
+    }
+
+    /**
+     * Runs perft at every depth from 1 to maxDepth.
+     *
+     * @return one result per depth, in order
+     */
+    public List<Result> run(ChessGame game, int maxDepth) {
+        List<Result> results = new ArrayList<>();
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            long start = System.nanoTime();
+            long nodes = perft(game, depth);
+            results.add(new Result(depth, nodes, System.nanoTime() - start));
+        }
+        return results;
+    }
+
+    /**
+     * Replays games from the starting position in parallel, checking every move.
+     *
+     * @param games each game's moves, in order
+     * @return for each game, the index of its first invalid move, or -1 if every move was valid
+     */
+    public int[] validateGames(List<? extends List<ChessMove>> games) {
+        return pool.submit(() -> IntStream.range(0, games.size())
+                .parallel()
+                .map(i -> firstInvalidMove(games.get(i)))
+                .toArray()).join();
+    }
+
+    private static int firstInvalidMove(List<ChessMove> moves) {
+        ChessGame game = new ChessGame();
+        for (int ply = 0; ply < moves.size(); ply++) {
+            try {
+                game.makeMove(moves.get(ply));
+            } catch (InvalidMoveException e) {
+                return ply;
+            }
+        }
+        return -1;
+    }
+
+    private static class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ChessBoard board; //owned by this task alone
+        private final ChessGame.TeamColor toMove;
+        private final int depth;
+        private final int splitPlies;
+
+        PerftTask(ChessBoard board, ChessGame.TeamColor toMove, int depth, int splitPlies) {
+            this.board = board;
+            this.toMove = toMove;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth <= 2) {
+                return Perft.perft(board, toMove, depth);
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.generateMoves(board, toMove, moves);
+            ChessGame.TeamColor enemy = Perft.opponent(toMove);
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessBoard child = board.copy();
+                child.makeMove(moves.get(i));
+                if (!Perft.leavesKingInCheck(child, toMove, enemy)) {
+                    children.add(new PerftTask(child, enemy, depth - 1, splitPlies - 1));
+                }
+            }
+            long nodes = 0;
+            for (PerftTask task : invokeAll(children)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package chess;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). The counts are
+ * compared against known values to check the move generator, and timed to measure its speed.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * @return the number of legal move sequences of exactly depth plies from this game's position
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game.getBoard(), game.getTeamTurn(), depth);
+    }
+
+    /**
+     * Same as {@link #perft(ChessGame, int)} but works directly on a board, which is changed
+     * while counting and left as it started.
+     */
+    public static long perft(ChessBoard board, ChessGame.TeamColor toMove, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        MoveList[] buffers = new MoveList[depth]; //one per ply so the recursion never allocates
+        for (int i = 0; i < depth; i++) {
+            buffers[i] = new MoveList();
+        }
+        return perft(board, toMove, depth, buffers);
+    }
+
+    private static long perft(ChessBoard board, ChessGame.TeamColor toMove, int depth, MoveList[] buffers) {
+        MoveList moves = buffers[depth - 1];
+        moves.clear();
+        MoveGenerator.generateMoves(board, toMove, moves);
+        ChessGame.TeamColor enemy = opponent(toMove);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int undo = board.makeMove(move);
+            if (!leavesKingInCheck(board, toMove, enemy)) {
+                nodes += (depth == 1) ? 1 : perft(board, enemy, depth - 1, buffers);
+            }
+            board.unmakeMove(move, undo);
+        }
+        return nodes;
+    }
+
+    static boolean leavesKingInCheck(ChessBoard board, ChessGame.TeamColor color, ChessGame.TeamColor enemy) {
+        int king = board.kingSquare(color);
+        return king >= 0 && MoveGenerator.isSquareAttacked(board, king, enemy);
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
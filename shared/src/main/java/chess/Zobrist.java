@@ -0,0 +1,38 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per piece on
+ * its square, plus {@link #sideToMove()} when it's black's turn, so boards can update
+ * their key as pieces move instead of rehashing all 64 squares.
+ * <p>
+ * The seed is fixed so keys are the same in every JVM and can be stored.
+ */
+public final class Zobrist {
+    private static final long[] PIECE_KEYS = new long[ChessBoard.PIECE_KINDS * 64];
+    private static final long SIDE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E55L);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param pieceIndex bitboard index from {@link ChessBoard#pieceIndex}
+     * @param square     square 0-63
+     */
+    public static long piece(int pieceIndex, int square) {
+        return PIECE_KEYS[pieceIndex * 64 + square];
+    }
+
+    public static long sideToMove() {
+        return SIDE_KEY;
+    }
+}
@@ -0,0 +1,117 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds good moves for hints and computer opponents. Each call to {@link #search} runs
+ * on its own copy of the game's board, so one Engine can serve many games at once.
+ * Searches share a {@link TranspositionTable}, by default the process-wide one, so work
+ * done for one move or game carries over to the next.
+ * <p>
+ * A search asked to use more than one thread runs Lazy SMP: helper threads search the same
+ * position alongside the calling thread, and the shared table lets the caller skip work
+ * they've already done.
+ * <p>
+ * An Engine given an {@link OpeningBook} plays straight from the book while the position is
+ * in it, without searching. Given a {@link Tablebase}, it answers covered endgames exactly,
+ * both at the root and wherever the search reaches one.
+ */
+public class Engine {
+    //Helper threads are daemons and are reused between searches.
+    private static final ExecutorService HELPERS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "engine-helper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final OpeningBook book; //null when there isn't one
+    private final Tablebase tablebase; //null when there isn't one
+
+    public Engine() {
+        this(new Evaluator(), TranspositionTable.shared());
+    }
+
+    public Engine(Evaluator evaluator, TranspositionTable table) {
+        this(evaluator, table, null);
+    }
+
+    public Engine(Evaluator evaluator, TranspositionTable table, OpeningBook book) {
+        this(evaluator, table, book, null);
+    }
+
+    public Engine(Evaluator evaluator, TranspositionTable table, OpeningBook book, Tablebase tablebase) {
+        this.evaluator = evaluator;
+        this.table = table;
+        this.book = book;
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Searches the game's current position for the team whose turn it is.
+     *
+     * @param game   the game to search; it isn't changed
+     * @param limits when to stop, and how many threads to use (no more than there are processors)
+     * @return the best move found and the line behind it. Book and tablebase moves come back with depth 0
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        if (book != null) {
+            ChessMove bookMove = book.pickMove(game, ThreadLocalRandom.current().nextInt());
+            if (bookMove != null) {
+                return new SearchResult(bookMove, 0, 0, 0, List.of(bookMove));
+            }
+        }
+        if (tablebase != null) {
+            int score = tablebase.probe(game);
+            ChessMove tablebaseMove = score == Tablebase.NOT_FOUND ? null : tablebase.bestMove(game);
+            if (tablebaseMove != null) {
+                return new SearchResult(tablebaseMove, score, 0, 0, List.of(tablebaseMove));
+            }
+        }
+        table.newSearch();
+        AtomicBoolean stopSignal = new AtomicBoolean();
+        List<SearchWorker> helpers = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        //the helper pool grows on demand, so more threads than cores would only fight over them
+        int threads = Math.min(limits.threads(), Runtime.getRuntime().availableProcessors());
+        for (int id = 1; id < threads; id++) {
+            SearchWorker helper = new SearchWorker(game.getBoard(), game.getTeamTurn(), evaluator, table, tablebase,
+                    limits, stopSignal, id);
+            helpers.add(helper);
+            running.add(HELPERS.submit(helper::run));
+        }
+
+        SearchWorker main = new SearchWorker(game.getBoard(), game.getTeamTurn(), evaluator, table, tablebase,
+                limits, stopSignal, 0);
+        SearchResult result;
+        try {
+            result = main.run();
+        } finally {
+            stopSignal.set(true); //the main worker's answer is the one we use, so the helpers can quit
+        }
+        long nodes = result.nodes();
+        for (int i = 0; i < running.size(); i++) {
+            try {
+                running.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+            nodes += helpers.get(i).nodes();
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes,
+                result.principalVariation());
+    }
+}
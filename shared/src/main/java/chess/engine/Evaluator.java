@@ -0,0 +1,31 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation: how good a position looks without searching any further.
+ * <p>
+ * The board keeps its material and piece-square total up to date as pieces move (see
+ * {@link PieceSquareTables}), so this is O(1) at every leaf.
+ */
+public class Evaluator {
+    //Indexed by PieceType ordinal, used for ordering captures.
+    static final int[] PIECE_VALUES = new int[6];
+
+    static {
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            PIECE_VALUES[type.ordinal()] = PieceSquareTables.pieceValue(type);
+        }
+    }
+
+    /**
+     * @return the score in centipawns from the given team's point of view
+     */
+    public int evaluate(ChessBoard board, ChessGame.TeamColor toMove) {
+        int score = board.positionScore();
+        return toMove == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,222 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.InvalidMoveException;
+import chess.Move;
+import chess.MoveGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A read-only opening book, memory-mapped from a file so lookups read straight out of the
+ * page cache and never allocate.
+ * <p>
+ * The file uses the Polyglot layout: 16-byte big-endian entries of key (8 bytes), move
+ * (2 bytes), weight (2 bytes) and learn (4 bytes, unused), sorted by key as an unsigned
+ * number. The key is {@link ChessGame#zobristKey()} and the move is a {@link Move} encoding,
+ * so files made by other Polyglot tools won't match; build books with {@link Builder}.
+ */
+public class OpeningBook {
+    public static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer entries; //only absolute gets are used, so threads can share it
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * Maps a book file. The mapping lasts until the book is garbage collected.
+     *
+     * @throws IOException if the file can't be read or isn't a whole number of entries
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long bytes = channel.size();
+            if (bytes % ENTRY_BYTES != 0 || bytes > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new OpeningBook(buffer);
+        }
+    }
+
+    /**
+     * @return how many entries the book holds
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the highest-weighted book move for a position key, or {@link Move#NONE}
+     */
+    public int bestMove(long key) {
+        int best = Move.NONE;
+        int bestWeight = -1;
+        for (int i = firstEntry(key); i < size && keyAt(i) == key; i++) {
+            int weight = weightAt(i);
+            if (weight > bestWeight) {
+                best = moveAt(i);
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks a book move at random, each with a chance proportional to its weight, so games
+     * don't all follow the same line.
+     *
+     * @param random any int; callers pass a fresh random number each time
+     * @return the chosen move, or {@link Move#NONE} if the position isn't in the book
+     */
+    public int pickMove(long key, int random) {
+        int first = firstEntry(key);
+        long total = 0;
+        int end = first;
+        while (end < size && keyAt(end) == key) {
+            total += weightAt(end);
+            end++;
+        }
+        if (end == first) {
+            return Move.NONE;
+        }
+        if (total == 0) {
+            return moveAt(first);
+        }
+        long target = Math.floorMod(random, total);
+        for (int i = first; i < end; i++) {
+            target -= weightAt(i);
+            if (target < 0) {
+                return moveAt(i);
+            }
+        }
+        return moveAt(end - 1);
+    }
+
+    /**
+     * @return a random weighted book move for the game, or null if the position isn't in the
+     * book or the stored move isn't legal here (two positions can share a key). The check runs
+     * on a copy of the board, so the game is left alone; only {@link #pickMove(long, int)} is
+     * free of allocation.
+     */
+    public ChessMove pickMove(ChessGame game, int random) {
+        int move = pickMove(game.zobristKey(), random);
+        //a promotion code past the pawn's can only come from a damaged or colliding entry
+        if (move == Move.NONE || (move >>> 12) > ChessPiece.PieceType.PAWN.ordinal()
+                || !MoveGenerator.isLegal(game.getBoard(), game.getTeamTurn(), move)) {
+            return null;
+        }
+        return Move.toChessMove(move);
+    }
+
+    // index of the first entry whose key isn't below this one
+    private int firstEntry(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    private int moveAt(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int weightAt(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 10) & 0xFFFF;
+    }
+
+    /**
+     * Collects moves from game lines and writes them out as a sorted book file. Each time a
+     * line plays a move from a position, that move's weight goes up.
+     */
+    public static class Builder {
+        private final List<long[]> entries = new ArrayList<>(); //{key, move, weight}
+
+        /**
+         * Adds the first maxPly moves of a line played from the given starting position.
+         *
+         * @param weight how much each move counts, e.g. 2 for a win, 1 for a draw
+         * @throws InvalidMoveException if one of the moves isn't legal where it's played
+         */
+        public Builder addLine(ChessGame start, List<ChessMove> moves, int maxPly, int weight)
+                throws InvalidMoveException {
+            ChessGame game = start.copy();
+            for (int ply = 0; ply < moves.size() && ply < maxPly; ply++) {
+                ChessMove move = moves.get(ply);
+                long key = game.zobristKey();
+                game.makeMove(move);
+                entries.add(new long[]{key, Move.encode(move), weight});
+            }
+            return this;
+        }
+
+        public Builder add(long key, int move, int weight) {
+            entries.add(new long[]{key, move, weight});
+            return this;
+        }
+
+        /**
+         * Merges repeated moves (weights are capped at 65535) and writes the book, sorted.
+         */
+        public void write(Path file) throws IOException {
+            entries.sort(Comparator.<long[]>comparingLong(entry -> entry[0] ^ Long.MIN_VALUE) //unsigned order
+                    .thenComparingLong(entry -> entry[1]));
+            List<long[]> merged = new ArrayList<>();
+            for (long[] entry : entries) {
+                long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && last[0] == entry[0] && last[1] == entry[1]) {
+                    last[2] = Math.min(0xFFFF, last[2] + entry[2]);
+                } else {
+                    merged.add(new long[]{entry[0], entry[1], Math.min(0xFFFF, entry[2])});
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(ENTRY_BYTES * 4096).order(ByteOrder.BIG_ENDIAN);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (long[] entry : merged) {
+                    if (!buffer.hasRemaining()) {
+                        flush(buffer, channel);
+                    }
+                    buffer.putLong(entry[0]).putShort((short) entry[1]).putShort((short) entry[2]).putInt(0);
+                }
+                flush(buffer, channel);
+            }
+        }
+
+        private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
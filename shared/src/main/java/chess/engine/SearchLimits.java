@@ -0,0 +1,42 @@
+package chess.engine;
+
+/**
+ * How far a search may go. The search stops at whichever limit it hits first;
+ * zero means that limit isn't used.
+ *
+ * @param maxDepth  deepest iteration to run, in plies
+ * @param maxNodes  nodes the main search thread may visit before stopping
+ * @param maxMillis wall-clock time before stopping
+ * @param threads   how many threads search together (1 means no helpers)
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxMillis, int threads) {
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth <= 0 || maxDepth > MAX_DEPTH) {
+            maxDepth = MAX_DEPTH;
+        }
+        if (threads < 1) {
+            threads = 1;
+        }
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0, 1);
+    }
+
+    public static SearchLimits millis(long maxMillis) {
+        return new SearchLimits(0, 0, maxMillis, 1);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, 0, 1);
+    }
+
+    /**
+     * @return the same limits, searched by this many threads
+     */
+    public SearchLimits withThreads(int threads) {
+        return new SearchLimits(maxDepth, maxNodes, maxMillis, threads);
+    }
+}
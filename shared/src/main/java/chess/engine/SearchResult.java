@@ -0,0 +1,29 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * What a search found.
+ *
+ * @param bestMove           the move to play, or null if the side to move has none
+ * @param score              centipawns from the side to move's point of view; mates are
+ *                           reported as {@link #MATE} minus the plies to mate
+ * @param depth              the deepest iteration that finished
+ * @param nodes              positions visited
+ * @param principalVariation the line the search expects, starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes,
+                           List<ChessMove> principalVariation) {
+    public static final int MATE = 100_000;
+    //any score past this is a mate: room for the longest tablebase mate found at the deepest search ply
+    public static final int MATE_THRESHOLD = MATE - Tablebase.MAX_MATE_PLIES - SearchWorker.MAX_PLY;
+
+    /**
+     * @return whether the score is a forced mate for one side or the other
+     */
+    public boolean isMate() {
+        return Math.abs(score) > MATE_THRESHOLD;
+    }
+}
@@ -0,0 +1,405 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+import chess.Zobrist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One iterative-deepening alpha-beta (negamax) search over its own board. Everything it
+ * needs per ply is allocated up front, so the search itself doesn't allocate.
+ * <p>
+ * In a multi-threaded search every thread runs one of these over the same transposition
+ * table (Lazy SMP). Helpers differ from the main worker only in which depth they start at,
+ * which is enough for them to fill the table with results the main worker can use.
+ */
+class SearchWorker {
+    static final int INFINITY = 1_000_000;
+    static final int MAX_PLY = SearchLimits.MAX_DEPTH + 32; //room for captures past the last full ply
+    private static final int CHECK_CLOCK_EVERY = 2048; //nodes between looks at the clock
+
+    //Move ordering buckets, best first.
+    private static final int PV_MOVE = 2_000_000;
+    private static final int CAPTURE = 1_000_000;
+    private static final int PROMOTION = 900_000;
+    private static final int FIRST_KILLER = 800_000;
+    private static final int SECOND_KILLER = 700_000;
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor rootColor;
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+    private final Tablebase tablebase; //null when there isn't one
+    private final SearchLimits limits;
+    private final long deadline;
+    private final AtomicBoolean stopSignal; //shared by every worker in the search
+    private final int helperId; //0 for the main worker
+
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] orderScores = new int[MAX_PLY][256];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY]; //triangular table: pv[ply] is the best line from ply on
+    private final int[] pvLength = new int[MAX_PLY];
+    private final int[] previousPv = new int[MAX_PLY];
+    private int previousPvLength;
+    private final int[][] killers = new int[MAX_PLY][2]; //quiet moves that caused a cutoff at each ply
+    private final int[][] history = new int[2][64 * 64]; //how often a quiet from/to caused a cutoff
+    private final long[] keys = new long[MAX_PLY + 1]; //position keys down the current line, for repetitions
+
+    private long nodes;
+    private boolean stopped;
+
+    SearchWorker(ChessBoard board, ChessGame.TeamColor rootColor, Evaluator evaluator, TranspositionTable table,
+                 Tablebase tablebase, SearchLimits limits, AtomicBoolean stopSignal, int helperId) {
+        this.board = board;
+        this.rootColor = rootColor;
+        this.evaluator = evaluator;
+        this.table = table;
+        this.tablebase = tablebase;
+        this.limits = limits;
+        this.stopSignal = stopSignal;
+        this.helperId = helperId;
+        this.deadline = limits.maxMillis() > 0 ? System.nanoTime() + limits.maxMillis() * 1_000_000 : Long.MAX_VALUE;
+        for (int i = 0; i < MAX_PLY; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    SearchResult run() {
+        keys[0] = key(rootColor);
+        int fallback = firstLegalMove();
+        if (fallback == Move.NONE) { //checkmate or stalemate already, nothing to search
+            return new SearchResult(null, isInCheck(rootColor) ? -SearchResult.MATE : 0, 0, 0, List.of());
+        }
+        int bestScore = 0;
+        int completedDepth = 0;
+        int firstDepth = 1 + (helperId % 2); //odd helpers run a ply ahead, so threads don't all repeat the same work
+        for (int depth = firstDepth; depth <= limits.maxDepth(); depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0, rootColor);
+            if (stopped) {
+                break; //an unfinished iteration can't be trusted, keep the last finished one (if any)
+            }
+            bestScore = score;
+            completedDepth = depth;
+            previousPvLength = pvLength[0];
+            System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+            if (Math.abs(score) >= SearchResult.MATE - depth) {
+                break; //found a mate nothing deeper can improve on
+            }
+        }
+        if (previousPvLength == 0) { //stopped before the first iteration finished, so report depth 0
+            previousPv[0] = fallback;
+            previousPvLength = 1;
+        }
+        List<ChessMove> line = new ArrayList<>(previousPvLength);
+        for (int i = 0; i < previousPvLength; i++) {
+            line.add(Move.toChessMove(previousPv[i]));
+        }
+        return new SearchResult(line.isEmpty() ? null : line.get(0), bestScore, completedDepth, nodes, line);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply, ChessGame.TeamColor color) {
+        pvLength[ply] = ply;
+        if (ply > 0 && isRepetition(ply)) {
+            return 0;
+        }
+        int known = probeTablebase(color, ply);
+        if (ply > 0 && known != Tablebase.NOT_FOUND) {
+            return known;
+        }
+        boolean inCheck = isInCheck(color);
+        if (inCheck && ply < SearchLimits.MAX_DEPTH) {
+            depth++; //look one ply further when in check, so short mates aren't missed
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiesce(alpha, beta, ply, color);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long entry = table.probe(keys[ply]);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) { //never cut at the root, it needs a move
+                int score = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        ChessGame.TeamColor enemy = opponent(color);
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateMoves(board, color, moves);
+        scoreMoves(moves, ply, color, hashMove, false);
+
+        int originalAlpha = alpha;
+        int bestMove = Move.NONE;
+        int best = -INFINITY;
+        int legalMoves = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            int undo = board.makeMove(move);
+            if (isInCheck(color)) {
+                board.unmakeMove(move, undo);
+                continue;
+            }
+            legalMoves++;
+            keys[ply + 1] = key(enemy);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1, enemy);
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+                if (alpha >= beta) {
+                    if (orderScores[ply][i] < PROMOTION) { //quiet move
+                        rememberCutoff(move, ply, color, depth);
+                    }
+                    break;
+                }
+            }
+        }
+        if (legalMoves == 0) {
+            return inCheck ? -SearchResult.MATE + ply : 0;
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(keys[ply], bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    long nodes() {
+        return nodes;
+    }
+
+    private int firstLegalMove() {
+        MoveList moves = moveLists[0];
+        moves.clear();
+        MoveGenerator.generateMoves(board, rootColor, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = board.makeMove(moves.get(i));
+            boolean legal = !isInCheck(rootColor);
+            board.unmakeMove(moves.get(i), undo);
+            if (legal) {
+                return moves.get(i);
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Keeps searching captures (or every move, when in check) until the position is quiet,
+     * so the evaluation never lands in the middle of an exchange.
+     */
+    private int quiesce(int alpha, int beta, int ply, ChessGame.TeamColor color) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        int known = probeTablebase(color, ply);
+        if (known != Tablebase.NOT_FOUND) {
+            return known;
+        }
+        boolean inCheck = isInCheck(color);
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluator.evaluate(board, color); //"stand pat": the side to move can decline every capture
+            if (best >= beta || ply >= MAX_PLY - 1) {
+                return best;
+            }
+            if (best > alpha) {
+                alpha = best;
+            }
+        } else if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(board, color);
+        }
+
+        ChessGame.TeamColor enemy = opponent(color);
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateMoves(board, color, moves);
+        scoreMoves(moves, ply, color, Move.NONE, !inCheck);
+
+        int legalMoves = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, ply, i);
+            int undo = board.makeMove(move);
+            if (isInCheck(color)) {
+                board.unmakeMove(move, undo);
+                continue;
+            }
+            legalMoves++;
+            int score = -quiesce(-beta, -alpha, ply + 1, enemy);
+            board.unmakeMove(move, undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        if (inCheck && legalMoves == 0) {
+            return -SearchResult.MATE + ply;
+        }
+        return best;
+    }
+
+    /**
+     * Gives each move an ordering score, putting the table's move (or failing that, the
+     * previous iteration's line) first. With capturesOnly, quiet moves are dropped instead.
+     */
+    private void scoreMoves(MoveList moves, int ply, ChessGame.TeamColor color, int hashMove, boolean capturesOnly) {
+        if (orderScores[ply].length < moves.size()) {
+            orderScores[ply] = new int[moves.size()];
+        }
+        int[] scores = orderScores[ply];
+        int firstMove = hashMove != Move.NONE ? hashMove : ply < previousPvLength ? previousPv[ply] : Move.NONE;
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int victim = board.pieceAt(Move.to(move));
+            int score;
+            if (victim >= 0) {
+                //most valuable victim first, then least valuable attacker
+                score = CAPTURE + Evaluator.PIECE_VALUES[victim % 6] * 16
+                        - Evaluator.PIECE_VALUES[board.pieceAt(Move.from(move)) % 6] / 16;
+            } else if (Move.isPromotion(move)) {
+                score = PROMOTION + Evaluator.PIECE_VALUES[Move.promotion(move).ordinal()];
+            } else if (capturesOnly) {
+                continue;
+            } else if (move == killers[ply][0]) {
+                score = FIRST_KILLER;
+            } else if (move == killers[ply][1]) {
+                score = SECOND_KILLER;
+            } else {
+                score = history[color.ordinal()][move & 0xFFF];
+            }
+            if (move == firstMove) {
+                score = PV_MOVE;
+            }
+            moves.set(kept, move);
+            scores[kept++] = score;
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Selection sort one step at a time: swaps the best remaining move into slot i. Cheaper
+     * than a full sort, since a cutoff usually comes after the first few moves.
+     */
+    private int pickNext(MoveList moves, int ply, int i) {
+        int[] scores = orderScores[ply];
+        int bestIndex = i;
+        for (int j = i + 1; j < moves.size(); j++) {
+            if (scores[j] > scores[bestIndex]) {
+                bestIndex = j;
+            }
+        }
+        if (bestIndex != i) {
+            int move = moves.get(i);
+            moves.set(i, moves.get(bestIndex));
+            moves.set(bestIndex, move);
+            int score = scores[i];
+            scores[i] = scores[bestIndex];
+            scores[bestIndex] = score;
+        }
+        return moves.get(i);
+    }
+
+    private void rememberCutoff(int move, int ply, ChessGame.TeamColor color, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] table = history[color.ordinal()];
+        table[move & 0xFFF] = Math.min(table[move & 0xFFF] + depth * depth, SECOND_KILLER - 1);
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - (ply + 1));
+        pvLength[ply] = Math.max(pvLength[ply + 1], ply + 1);
+    }
+
+    /**
+     * Counts a node and checks the budget.
+     *
+     * @return true if the search has run out and should unwind
+     */
+    private boolean countNode() {
+        nodes++;
+        if (helperId == 0 && limits.maxNodes() > 0 && nodes >= limits.maxNodes()) {
+            stopped = true;
+        } else if ((nodes & (CHECK_CLOCK_EVERY - 1)) == 0
+                && (stopSignal.get() || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * @return whether the position at this ply already came up earlier in the line (same side to move)
+     */
+    private boolean isRepetition(int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (keys[i] == keys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the tablebase score once few enough pieces are left, with mates counted from the root,
+     * or {@link Tablebase#NOT_FOUND}
+     */
+    private int probeTablebase(ChessGame.TeamColor color, int ply) {
+        if (tablebase == null || Long.bitCount(board.getOccupancy()) > 3) {
+            return Tablebase.NOT_FOUND;
+        }
+        int score = tablebase.probe(board, color);
+        if (score == Tablebase.NOT_FOUND || score == 0) {
+            return score;
+        }
+        return score > 0 ? score - ply : score + ply;
+    }
+
+    private boolean isInCheck(ChessGame.TeamColor color) {
+        int king = board.kingSquare(color);
+        return king >= 0 && MoveGenerator.isSquareAttacked(board, king, opponent(color));
+    }
+
+    private long key(ChessGame.TeamColor toMove) {
+        return board.zobristKey() ^ (toMove == ChessGame.TeamColor.BLACK ? Zobrist.sideToMove() : 0L);
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,193 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exact answers for king and one piece against a bare king (KQK, KRK, KPK), read from
+ * memory-mapped files made by {@link TablebaseGenerator}.
+ * <p>
+ * Each file has one byte per position, indexed by {@link #index}: 0 for a draw, 255 for a
+ * position that can't happen, otherwise the plies to mate plus one. An even byte means the
+ * side to move wins, an odd one that it gets mated. Tables are stored with white as the side
+ * that has the piece; positions where black has it are flipped before probing.
+ */
+public class Tablebase {
+    public static final int NOT_FOUND = Integer.MIN_VALUE;
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+    static final int DRAW = 0;
+    static final int ILLEGAL = 255;
+    static final int MAX_MATE_PLIES = ILLEGAL - 2; //the longest mate a byte can hold
+
+    /**
+     * The endgames covered, each named after its file.
+     */
+    public enum Endgame {
+        KQK(ChessPiece.PieceType.QUEEN),
+        KRK(ChessPiece.PieceType.ROOK),
+        KPK(ChessPiece.PieceType.PAWN);
+
+        final ChessPiece.PieceType piece;
+
+        Endgame(ChessPiece.PieceType piece) {
+            this.piece = piece;
+        }
+
+        public String fileName() {
+            return name() + ".tb";
+        }
+    }
+
+    private final ByteBuffer[] tables = new ByteBuffer[Endgame.values().length]; //null if the file wasn't there
+
+    private Tablebase() {
+    }
+
+    /**
+     * Maps whichever tablebase files are in the directory. Missing ones just probe as NOT_FOUND.
+     *
+     * @throws IOException if a file is there but can't be read or is the wrong size
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        Tablebase tablebase = new Tablebase();
+        for (Endgame endgame : Endgame.values()) {
+            Path file = directory.resolve(endgame.fileName());
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() != POSITIONS) {
+                    throw new IOException("Not a tablebase file: " + file);
+                }
+                tablebase.tables[endgame.ordinal()] = channel.map(FileChannel.MapMode.READ_ONLY, 0, POSITIONS);
+            }
+        }
+        return tablebase;
+    }
+
+    /**
+     * @return whether the table for this endgame was loaded
+     */
+    public boolean has(Endgame endgame) {
+        return tables[endgame.ordinal()] != null;
+    }
+
+    /**
+     * @return the game's exact score, see {@link #probe(ChessBoard, ChessGame.TeamColor)}
+     */
+    public int probe(ChessGame game) {
+        return probe(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * Looks up a position with at most three pieces.
+     *
+     * @return the score for the side to move in {@link SearchResult} terms: {@link SearchResult#MATE}
+     * minus the plies to mate for a win, the negative of that for a loss, 0 for a draw; or
+     * {@link #NOT_FOUND} if the position isn't covered
+     */
+    public int probe(ChessBoard board, ChessGame.TeamColor toMove) {
+        int pieces = Long.bitCount(board.getOccupancy());
+        if (pieces == 2) {
+            return 0; //two bare kings
+        }
+        if (pieces != 3) {
+            return NOT_FOUND;
+        }
+        for (ChessGame.TeamColor strong : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                long bitboard = board.getBitboard(ChessBoard.pieceIndex(strong, type));
+                if (type == ChessPiece.PieceType.KING || bitboard == 0) {
+                    continue;
+                }
+                if (type == ChessPiece.PieceType.BISHOP || type == ChessPiece.PieceType.KNIGHT) {
+                    return 0; //a lone minor piece can't mate
+                }
+                ByteBuffer table = tables[endgameOf(type).ordinal()];
+                if (table == null) {
+                    return NOT_FOUND;
+                }
+                ChessGame.TeamColor weak = strong == ChessGame.TeamColor.WHITE
+                        ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+                int flip = strong == ChessGame.TeamColor.WHITE ? 0 : 56; //mirrors the ranks
+                int index = index(toMove == strong, board.kingSquare(strong) ^ flip,
+                        Long.numberOfTrailingZeros(bitboard) ^ flip, board.kingSquare(weak) ^ flip);
+                return score(table.get(index) & 0xFF);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return the move that keeps the best tablebase score (fastest mate, slowest loss), or null
+     * if the position isn't covered or the side to move has no moves
+     */
+    public ChessMove bestMove(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        ChessGame.TeamColor enemy = toMove == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        MoveList moves = new MoveList(64);
+        MoveGenerator.generateMoves(board, toMove, moves);
+        int bestMove = Move.NONE;
+        int bestScore = NOT_FOUND;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (!MoveGenerator.isLegal(board, toMove, move)) {
+                continue;
+            }
+            int undo = board.makeMove(move);
+            int child = probe(board, enemy);
+            board.unmakeMove(move, undo);
+            if (child == NOT_FOUND) {
+                return null;
+            }
+            int score = -child;
+            score += score > 0 ? -1 : score < 0 ? 1 : 0; //one ply further from the mate
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+        return bestMove == Move.NONE ? null : Move.toChessMove(bestMove);
+    }
+
+    static Endgame endgameOf(ChessPiece.PieceType type) {
+        return switch (type) {
+            case QUEEN -> Endgame.KQK;
+            case ROOK -> Endgame.KRK;
+            case PAWN -> Endgame.KPK;
+            default -> throw new IllegalArgumentException("No tablebase for " + type);
+        };
+    }
+
+    /**
+     * @param strongToMove whether the side with the piece is to move
+     */
+    static int index(boolean strongToMove, int strongKing, int piece, int weakKing) {
+        return (((strongToMove ? 0 : 1) * 64 + strongKing) * 64 + piece) * 64 + weakKing;
+    }
+
+    static int score(int stored) {
+        if (stored == ILLEGAL) {
+            return NOT_FOUND;
+        }
+        if (stored == DRAW) {
+            return 0;
+        }
+        int plies = stored - 1;
+        return (stored % 2 == 0) ? SearchResult.MATE - plies : -SearchResult.MATE + plies;
+    }
+}
@@ -0,0 +1,207 @@
+package chess.engine;
+
+import chess.Attacks;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Builds the {@link Tablebase} files by retrograde analysis. Every position's moves are worked
+ * out once up front; then, one ply at a time, a position is a win if some move reaches a
+ * position lost in one ply less, and a loss if every move reaches a position won in at most one
+ * ply less. Whatever is left when nothing changes any more is a draw.
+ * <p>
+ * Run it with the output directory as the only argument. It takes a few seconds.
+ */
+public final class TablebaseGenerator {
+    private static final int UNKNOWN = -1;
+    private static final int DRAWN = -2;
+    private static final int IMPOSSIBLE = -3;
+
+    private TablebaseGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        generate(Path.of(args.length > 0 ? args[0] : "tablebases"));
+    }
+
+    /**
+     * Writes every tablebase file into the directory, creating it if needed.
+     */
+    public static void generate(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        byte[] queen = generate(Tablebase.Endgame.KQK, null, null);
+        byte[] rook = generate(Tablebase.Endgame.KRK, null, null);
+        byte[] pawn = generate(Tablebase.Endgame.KPK, queen, rook); //pawns promote into the other two
+        Files.write(directory.resolve(Tablebase.Endgame.KQK.fileName()), queen);
+        Files.write(directory.resolve(Tablebase.Endgame.KRK.fileName()), rook);
+        Files.write(directory.resolve(Tablebase.Endgame.KPK.fileName()), pawn);
+    }
+
+    /**
+     * @param queen the finished KQK table, needed for KPK promotions
+     * @param rook  the finished KRK table, needed for KPK promotions
+     * @return the table, one byte per position as described in {@link Tablebase}
+     */
+    static byte[] generate(Tablebase.Endgame endgame, byte[] queen, byte[] rook) {
+        int[] plies = new int[Tablebase.POSITIONS]; //plies to mate (even: side to move loses), or one of the flags
+        int[] childStart = new int[Tablebase.POSITIONS + 1];
+        int[] children = new int[1 << 20]; //an index into this table, or -1 - the stored byte of a finished position
+        int childCount = 0;
+        int longestFixed = 0;
+        MoveList moves = new MoveList(64);
+        ChessPiece piece = new ChessPiece(ChessGame.TeamColor.WHITE, endgame.piece);
+
+        for (int index = 0; index < Tablebase.POSITIONS; index++) {
+            childStart[index] = childCount;
+            ChessGame.TeamColor toMove = index < Tablebase.POSITIONS / 2 ? ChessGame.TeamColor.WHITE
+                    : ChessGame.TeamColor.BLACK;
+            ChessGame.TeamColor waiting = toMove == ChessGame.TeamColor.WHITE
+                    ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            ChessBoard board = setUp(index, piece);
+            if (board == null || MoveGenerator.isSquareAttacked(board, board.kingSquare(waiting), toMove)) {
+                plies[index] = IMPOSSIBLE;
+                continue;
+            }
+
+            moves.clear();
+            MoveGenerator.generateMoves(board, toMove, moves);
+            int legal = 0;
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (!MoveGenerator.isLegal(board, toMove, move)) {
+                    continue;
+                }
+                legal++;
+                int undo = board.makeMove(move);
+                int child = child(board, waiting, endgame, queen, rook);
+                board.unmakeMove(move, undo);
+                if (child < 0) {
+                    longestFixed = Math.max(longestFixed, -1 - child);
+                }
+                if (childCount == children.length) {
+                    children = Arrays.copyOf(children, children.length * 2);
+                }
+                children[childCount++] = child;
+            }
+            if (legal == 0) {
+                plies[index] = MoveGenerator.isSquareAttacked(board, board.kingSquare(toMove), waiting) ? 0 : DRAWN;
+            } else {
+                plies[index] = UNKNOWN;
+            }
+        }
+        childStart[Tablebase.POSITIONS] = childCount;
+
+        int lastChange = 0;
+        for (int n = 1; n <= Tablebase.MAX_MATE_PLIES; n++) {
+            if (n - lastChange > 2 && n > longestFixed + 2) {
+                break;
+            }
+            for (int index = 0; index < Tablebase.POSITIONS; index++) {
+                if (plies[index] != UNKNOWN) {
+                    continue;
+                }
+                boolean decided = n % 2 == 1 ? canWinIn(n, index, plies, childStart, children)
+                        : mustLoseIn(n, index, plies, childStart, children);
+                if (decided) {
+                    plies[index] = n;
+                    lastChange = n;
+                }
+            }
+        }
+
+        byte[] table = new byte[Tablebase.POSITIONS];
+        for (int index = 0; index < Tablebase.POSITIONS; index++) {
+            int value = plies[index];
+            table[index] = (byte) (value == IMPOSSIBLE ? Tablebase.ILLEGAL : value < 0 ? Tablebase.DRAW : value + 1);
+        }
+        return table;
+    }
+
+    // some move reaches a position where the other side is mated in n - 1 plies
+    private static boolean canWinIn(int n, int index, int[] plies, int[] childStart, int[] children) {
+        for (int i = childStart[index]; i < childStart[index + 1]; i++) {
+            if (childPlies(children[i], plies) == n - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // every move reaches a position the other side wins, and the slowest of those wins takes n - 1 plies
+    private static boolean mustLoseIn(int n, int index, int[] plies, int[] childStart, int[] children) {
+        int longest = -1;
+        for (int i = childStart[index]; i < childStart[index + 1]; i++) {
+            int child = childPlies(children[i], plies);
+            if (child < 0 || child % 2 == 0) {
+                return false;
+            }
+            longest = Math.max(longest, child);
+        }
+        return longest == n - 1;
+    }
+
+    private static int childPlies(int child, int[] plies) {
+        if (child >= 0) {
+            return plies[child];
+        }
+        int stored = -1 - child;
+        return stored == Tablebase.DRAW ? DRAWN : stored - 1;
+    }
+
+    // what a move led to: an index into this table, or -1 - the stored byte when it left this endgame
+    private static int child(ChessBoard board, ChessGame.TeamColor toMove, Tablebase.Endgame endgame,
+                             byte[] queen, byte[] rook) {
+        if (Long.bitCount(board.getOccupancy()) == 2) {
+            return -1 - Tablebase.DRAW; //the piece was taken
+        }
+        int strongKing = board.kingSquare(ChessGame.TeamColor.WHITE);
+        int weakKing = board.kingSquare(ChessGame.TeamColor.BLACK);
+        boolean strongToMove = toMove == ChessGame.TeamColor.WHITE;
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            long bitboard = board.getBitboard(ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE, type));
+            if (type == ChessPiece.PieceType.KING || bitboard == 0) {
+                continue;
+            }
+            int index = Tablebase.index(strongToMove, strongKing, Long.numberOfTrailingZeros(bitboard), weakKing);
+            if (type == endgame.piece) {
+                return index;
+            } else if (type == ChessPiece.PieceType.QUEEN) {
+                return -1 - (queen[index] & 0xFF);
+            } else if (type == ChessPiece.PieceType.ROOK) {
+                return -1 - (rook[index] & 0xFF);
+            }
+            return -1 - Tablebase.DRAW; //underpromoted to a bishop or knight
+        }
+        throw new IllegalStateException("Piece vanished from " + board.toStringBoard());
+    }
+
+    // the board for an index, or null if the pieces overlap, the kings touch or a pawn is on an end rank
+    private static ChessBoard setUp(int index, ChessPiece piece) {
+        int weakKing = index & 63;
+        int pieceSquare = (index >> 6) & 63;
+        int strongKing = (index >> 12) & 63;
+        if (strongKing == pieceSquare || pieceSquare == weakKing || strongKing == weakKing
+                || (Attacks.king(strongKing) & (1L << weakKing)) != 0) {
+            return null;
+        }
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && (pieceSquare < 8 || pieceSquare >= 56)) {
+            return null;
+        }
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.ofSquare(strongKing), new ChessPiece(ChessGame.TeamColor.WHITE,
+                ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.ofSquare(pieceSquare), piece);
+        board.addPiece(ChessPosition.ofSquare(weakKing), new ChessPiece(ChessGame.TeamColor.BLACK,
+                ChessPiece.PieceType.KING));
+        return board;
+    }
+}
@@ -0,0 +1,165 @@
+package chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed-size hash table of search results shared by every search thread, without locks.
+ * <p>
+ * Each entry is two longs: the packed data and the position key XORed with that data.
+ * A reader only trusts an entry when key ^ data matches the key it is probing for, so an
+ * entry torn by two threads writing at once just reads as a miss. Entries live in buckets of
+ * two: the first slot keeps the deepest result (until it gets old), the second always takes
+ * the newest.
+ * <p>
+ * Packed data layout: bits 0-15 move, 16-47 score, 48-55 depth, 56-57 bound, 58-63 age.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2; //score is at least this (the search failed high)
+    public static final int UPPER_BOUND = 3; //score is at most this (the search failed low)
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int DEFAULT_MEGABYTES = 16;
+
+    private static volatile TranspositionTable shared;
+
+    private final long[] slots; //per entry: key ^ data, then data
+    private final int bucketMask;
+    private volatile int age;
+
+    /**
+     * @param megabytes roughly how much memory to use; rounded down to a power of two
+     */
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(2, (long) megabytes * 1024 * 1024 / 16);
+        int buckets = Integer.highestOneBit((int) Math.min(entries / 2, 1 << 26));
+        slots = new long[buckets * 4];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * @return the table every Engine uses unless it's given its own
+     */
+    public static TranspositionTable shared() {
+        TranspositionTable table = shared;
+        if (table == null) {
+            synchronized (TranspositionTable.class) {
+                table = shared;
+                if (table == null) {
+                    table = new TranspositionTable(DEFAULT_MEGABYTES);
+                    shared = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from older ones are replaced first.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0x3F;
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            SLOTS.setOpaque(slots, i, 0L);
+        }
+    }
+
+    /**
+     * @return the packed entry for this key, or 0 if there isn't one
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int slot = base; slot < base + 4; slot += 2) {
+            long data = (long) SLOTS.getOpaque(slots, slot + 1);
+            if (data != 0 && ((long) SLOTS.getOpaque(slots, slot) ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Saves a search result.
+     *
+     * @param ply how far the position is from the search root, so mate scores can be stored
+     *            relative to the position instead of the root
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int base = bucket(key);
+        long deepData = (long) SLOTS.getOpaque(slots, base + 1);
+        boolean deepIsSame = deepData != 0 && ((long) SLOTS.getOpaque(slots, base) ^ deepData) == key;
+        long recentData = (long) SLOTS.getOpaque(slots, base + 3);
+        boolean recentIsSame = recentData != 0 && ((long) SLOTS.getOpaque(slots, base + 2) ^ recentData) == key;
+        if (move == 0) { //keep the best move we already knew about
+            if (deepIsSame) {
+                move = move(deepData);
+            } else if (recentIsSame) {
+                move = move(recentData);
+            }
+        }
+        long data = pack(move, toStored(score, ply), depth, bound, age);
+
+        int slot;
+        if (deepIsSame || deepData == 0 || depth >= depth(deepData) || age(deepData) != age) {
+            slot = base;
+        } else {
+            slot = base + 2;
+        }
+        SLOTS.setOpaque(slots, slot, key ^ data);
+        SLOTS.setOpaque(slots, slot + 1, data);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    /**
+     * @param ply how far the probing position is from the search root
+     */
+    public static int score(long data, int ply) {
+        int score = (int) (data >> 16);
+        if (score > SearchResult.MATE_THRESHOLD) {
+            return score - ply;
+        } else if (score < -SearchResult.MATE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 48) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 56) & 0x3);
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 58);
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFL)
+                | ((score & 0xFFFF_FFFFL) << 16)
+                | ((long) Math.min(depth, 0xFF) << 48)
+                | ((long) bound << 56)
+                | ((long) age << 58);
+    }
+
+    private static int toStored(int score, int ply) {
+        if (score > SearchResult.MATE_THRESHOLD) {
+            return score + ply;
+        } else if (score < -SearchResult.MATE_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private int bucket(long key) {
+        return (int) (key & bucketMask) * 4;
+    }
+}
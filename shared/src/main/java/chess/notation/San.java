@@ -0,0 +1,240 @@
+package chess.notation;
+
+import chess.Attacks;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+import chess.MoveList;
+
+/**
+ * Reads and writes Standard Algebraic Notation ("Nbd7", "exd5", "e8=Q+").
+ * <p>
+ * Instead of generating every legal move and searching them, a SAN move is resolved by
+ * working backwards from its target square: the attack tables give the squares a piece of
+ * that type could have come from, and only those few candidates get checked for legality.
+ * The rules engine has no castling or en passant, so those are rejected.
+ */
+public final class San {
+    private static final String PIECE_LETTERS = "KQBNR"; //indexed by PieceType ordinal
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+    private static final long FILE_A = 0x0101010101010101L;
+
+    private San() {
+    }
+
+    /**
+     * @return the legal move the SAN text names in this game
+     * @throws IllegalArgumentException if the text isn't SAN, or doesn't name exactly one legal move
+     */
+    public static ChessMove parse(ChessGame game, String san) {
+        return Move.toChessMove(resolve(game.getBoard(), game.getTeamTurn(), san));
+    }
+
+    /**
+     * Finds the encoded move (see {@link Move}) the SAN text names. The board is changed while
+     * checking candidates but left as it was.
+     *
+     * @throws IllegalArgumentException if the text isn't SAN, or doesn't name exactly one legal move
+     */
+    public static int resolve(ChessBoard board, ChessGame.TeamColor toMove, CharSequence san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end >= 3 && (san.charAt(0) == 'O' || san.charAt(0) == '0') && san.charAt(1) == '-') {
+            throw new IllegalArgumentException("Castling isn't supported: " + san);
+        }
+        int start = 0;
+        int type = PAWN;
+        if (end > 0 && PIECE_LETTERS.indexOf(san.charAt(0)) >= 0) {
+            type = PIECE_LETTERS.indexOf(san.charAt(0));
+            start = 1;
+        }
+        ChessPiece.PieceType promotion = null;
+        if (end - start >= 3 && PIECE_LETTERS.indexOf(san.charAt(end - 1)) > 0) { //"e8=Q" or "e8Q", never a king
+            promotion = ChessPiece.PieceType.values()[PIECE_LETTERS.indexOf(san.charAt(end - 1))];
+            end -= san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end - start < 2) {
+            throw new IllegalArgumentException("Not a SAN move: " + san);
+        }
+        int to = square(san, end - 2);
+
+        long fromMask = -1L; //squares the text allows the piece to come from
+        boolean capture = false;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromMask &= FILE_A << (c - 'a');
+            } else if (c >= '1' && c <= '8') {
+                fromMask &= 0xFFL << (8 * (c - '1'));
+            } else if (c == 'x' || c == ':') {
+                capture = true;
+            } else {
+                throw new IllegalArgumentException("Not a SAN move: " + san);
+            }
+        }
+        //a pawn's push and capture reach different squares, so the mark has to match the board
+        boolean targetTaken = (board.getOccupancy(opponent(toMove)) & (1L << to)) != 0;
+        if (capture != targetTaken && (capture || type == PAWN)) {
+            throw new IllegalArgumentException("No legal move matches " + san);
+        }
+
+        long candidates = origins(board, toMove, type, to) & fromMask;
+        int found = Move.NONE;
+        while (candidates != 0) {
+            int from = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            int move = Move.of(from, to, promotion);
+            if (!MoveGenerator.isLegal(board, toMove, move)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new IllegalArgumentException("Ambiguous move " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw new IllegalArgumentException("No legal move matches " + san);
+        }
+        return found;
+    }
+
+    /**
+     * @return the SAN for a legal move in this game, including the check or mate mark
+     * @throws IllegalArgumentException if the move isn't legal
+     */
+    public static String format(ChessGame game, ChessMove move) {
+        if (!move.getStartPosition().isOnBoard() || !move.getEndPosition().isOnBoard()) {
+            throw new IllegalArgumentException("Not a legal move: " + move);
+        }
+        StringBuilder san = new StringBuilder(8);
+        append(game.getBoard(), game.getTeamTurn(), Move.encode(move), san);
+        return san.toString();
+    }
+
+    /**
+     * Writes the SAN for an encoded move, including the check or mate mark. The board is
+     * changed while working out the mark but left as it was.
+     *
+     * @throws IllegalArgumentException if the move isn't legal
+     */
+    public static void append(ChessBoard board, ChessGame.TeamColor toMove, int move, StringBuilder san) {
+        if (!MoveGenerator.isLegal(board, toMove, move)) {
+            throw new IllegalArgumentException("Not a legal move: " + Move.toChessMove(move));
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int type = board.pieceAt(from) % 6;
+        boolean capture = board.pieceAt(to) >= 0;
+
+        if (type == PAWN) {
+            if (capture) {
+                san.append((char) ('a' + from % 8));
+            }
+        } else {
+            san.append(PIECE_LETTERS.charAt(type));
+            appendDisambiguation(board, toMove, type, from, to, san);
+        }
+        if (capture) {
+            san.append('x');
+        }
+        san.append((char) ('a' + to % 8)).append((char) ('1' + to / 8));
+        ChessPiece.PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            san.append('=').append(PIECE_LETTERS.charAt(promotion.ordinal()));
+        }
+
+        ChessGame.TeamColor enemy = opponent(toMove);
+        int undo = board.makeMove(move);
+        int king = board.kingSquare(enemy);
+        if (king >= 0 && MoveGenerator.isSquareAttacked(board, king, toMove)) {
+            san.append(hasLegalMove(board, enemy) ? '+' : '#');
+        }
+        board.unmakeMove(move, undo);
+    }
+
+    // the squares a piece of this type belonging to toMove could reach the target from, before checking legality
+    private static long origins(ChessBoard board, ChessGame.TeamColor toMove, int type, int to) {
+        int color = toMove.ordinal();
+        long own = board.getBitboard(color * 6 + type);
+        long occupied = board.getOccupancy();
+        if ((board.getOccupancy(toMove) & (1L << to)) != 0) {
+            return 0L;
+        }
+        if (type != PAWN) {
+            return MoveGenerator.attacks(type, to, occupied) & own; //every piece but the pawn moves the same both ways
+        }
+        if ((board.getOccupancy(opponent(toMove)) & (1L << to)) != 0) {
+            return Attacks.pawn(color ^ 1, to) & own;
+        }
+        int back = color == 0 ? -8 : 8;
+        int one = to + back;
+        if (one < 0 || one > 63) {
+            return 0L;
+        }
+        if ((own & (1L << one)) != 0) {
+            return 1L << one;
+        }
+        int doubleRank = color == 0 ? 3 : 4;
+        if (to / 8 == doubleRank && (occupied & (1L << one)) == 0) {
+            return own & (1L << (one + back));
+        }
+        return 0L;
+    }
+
+    // adds the file, rank or both when another piece of the same kind could also legally reach the square
+    private static void appendDisambiguation(ChessBoard board, ChessGame.TeamColor toMove, int type, int from,
+                                             int to, StringBuilder san) {
+        long others = origins(board, toMove, type, to) & ~(1L << from);
+        boolean clash = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        while (others != 0) {
+            int other = Long.numberOfTrailingZeros(others);
+            others &= others - 1;
+            if (MoveGenerator.isLegal(board, toMove, Move.of(other, to))) {
+                clash = true;
+                sameFile |= other % 8 == from % 8;
+                sameRank |= other / 8 == from / 8;
+            }
+        }
+        if (!clash) {
+            return;
+        }
+        if (!sameFile) {
+            san.append((char) ('a' + from % 8));
+        } else if (!sameRank) {
+            san.append((char) ('1' + from / 8));
+        } else {
+            san.append((char) ('a' + from % 8)).append((char) ('1' + from / 8));
+        }
+    }
+
+    private static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateMoves(board, color, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (MoveGenerator.isLegal(board, color, moves.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int square(CharSequence text, int index) {
+        char file = text.charAt(index);
+        char rank = text.charAt(index + 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            throw new IllegalArgumentException("Not a square: " + text);
+        }
+        return (rank - '1') * 8 + (file - 'a');
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return (color == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
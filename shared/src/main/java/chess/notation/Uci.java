@@ -0,0 +1,73 @@
+package chess.notation;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.Move;
+import chess.MoveGenerator;
+
+/**
+ * Reads and writes moves in UCI long algebraic form: the start and end squares, then the
+ * promotion piece in lower case ("e2e4", "e7e8q").
+ */
+public final class Uci {
+    private static final String PROMOTION_LETTERS = "kqbnr"; //indexed by PieceType ordinal
+
+    private Uci() {
+    }
+
+    /**
+     * @return the legal move the UCI text names in this game
+     * @throws IllegalArgumentException if the text isn't a UCI move, or the move isn't legal
+     */
+    public static ChessMove parse(ChessGame game, String uci) {
+        return Move.toChessMove(resolve(game.getBoard(), game.getTeamTurn(), uci));
+    }
+
+    /**
+     * Turns UCI text into an encoded move (see {@link Move}) and checks it's legal. The board is
+     * changed while checking but left as it was.
+     *
+     * @throws IllegalArgumentException if the text isn't a UCI move, or the move isn't legal
+     */
+    public static int resolve(ChessBoard board, ChessGame.TeamColor toMove, CharSequence uci) {
+        if (uci.length() != 4 && uci.length() != 5) {
+            throw new IllegalArgumentException("Not a UCI move: " + uci);
+        }
+        int from = San.square(uci, 0);
+        int to = San.square(uci, 2);
+        ChessPiece.PieceType promotion = null;
+        if (uci.length() == 5) {
+            int letter = PROMOTION_LETTERS.indexOf(Character.toLowerCase(uci.charAt(4)));
+            if (letter <= 0) {
+                throw new IllegalArgumentException("Not a UCI move: " + uci);
+            }
+            promotion = ChessPiece.PieceType.values()[letter];
+        }
+        int move = Move.of(from, to, promotion);
+        if (!MoveGenerator.isLegal(board, toMove, move)) {
+            throw new IllegalArgumentException("Not a legal move: " + uci);
+        }
+        return move;
+    }
+
+    /**
+     * @return the UCI text for a move, like "e2e4" or "e7e8q"
+     */
+    public static String format(ChessMove move) {
+        StringBuilder uci = new StringBuilder(5);
+        uci.append(move.getStartPosition().toAlgebraic()).append(move.getEndPosition().toAlgebraic());
+        if (move.getPromotionPiece() != null) {
+            uci.append(PROMOTION_LETTERS.charAt(move.getPromotionPiece().ordinal()));
+        }
+        return uci.toString();
+    }
+
+    /**
+     * @return the UCI text for an encoded move (see {@link Move})
+     */
+    public static String format(int move) {
+        return format(Move.toChessMove(move));
+    }
+}
@@ -0,0 +1,19 @@
+package chess.pgn;
+
+import java.io.IOException;
+
+/**
+ * Indicates a PGN game couldn't be read or written. The reader skips past the bad game
+ * before throwing, so the next call picks up with the game after it.
+ */
+public class PgnException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public PgnException(String message) {
+        super(message);
+    }
+
+    public PgnException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
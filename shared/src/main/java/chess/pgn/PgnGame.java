@@ -0,0 +1,94 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One game from a PGN file: its tag pairs, the moves of the main line and the result.
+ * Comments, NAGs and variations aren't kept.
+ */
+public class PgnGame {
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNFINISHED = "*";
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final List<ChessMove> moves = new ArrayList<>();
+    private String result = UNFINISHED;
+
+    /**
+     * @return the tag pairs in the order they were read or set
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return the value of a tag, or null if the game doesn't have it
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    /**
+     * @return the main line, starting from {@link #startingPosition()}
+     */
+    public List<ChessMove> getMoves() {
+        return moves;
+    }
+
+    public void addMove(ChessMove move) {
+        moves.add(move);
+    }
+
+    /**
+     * @return "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * @return the position the moves start from: the FEN tag if there is one, otherwise the usual start
+     * @throws IllegalArgumentException if the FEN tag is malformed
+     */
+    public ChessGame startingPosition() {
+        String fen = tags.get("FEN");
+        return fen == null ? new ChessGame() : ChessGame.fromFen(fen);
+    }
+
+    /**
+     * @return the game after playing every move from the starting position
+     */
+    public ChessGame replay() throws InvalidMoveException {
+        ChessGame game = startingPosition();
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+        }
+        return game;
+    }
+
+    @Override
+    public String toString() {
+        return "PgnGame{" +
+                "tags=" + tags +
+                ", moves=" + moves.size() +
+                ", result='" + result + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,270 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Move;
+import chess.notation.San;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads PGN one game at a time, so a file of any size can be imported without loading it
+ * all. Only the current game is held in memory. Moves are resolved against the game as it's
+ * played, so every move handed back is legal.
+ * <pre>
+ * try (PgnReader reader = new PgnReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+ *     for (PgnGame game = reader.next(); game != null; game = reader.next()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public class PgnReader implements Closeable {
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private int line = 1;
+    private boolean lineStart = true;
+    private final StringBuilder token = new StringBuilder(32);
+
+    public PgnReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return the game, or null at the end of the input
+     * @throws PgnException if the game is malformed or has an illegal move. The rest of that
+     *                      game is skipped, so calling next again moves on to the following one
+     */
+    public PgnGame next() throws IOException {
+        int c = skipWhitespace();
+        if (c < 0) {
+            return null;
+        }
+        int gameLine = line;
+        PgnGame pgn = new PgnGame();
+        while (c == '[') {
+            read();
+            if (!readTag(pgn)) {
+                int badLine = line;
+                if (!lineStart) { //drop the rest of the bad tag's line
+                    skipComment(';');
+                }
+                throw skipGame("Malformed tag on line " + badLine, null);
+            }
+            c = skipWhitespace();
+        }
+        ChessBoard board;
+        ChessGame.TeamColor toMove;
+        try {
+            ChessGame start = pgn.startingPosition();
+            board = start.getBoard();
+            toMove = start.getTeamTurn();
+        } catch (IllegalArgumentException e) {
+            throw skipGame("Game on line " + gameLine + ": " + e.getMessage(), e);
+        }
+
+        while (true) {
+            c = skipWhitespace();
+            if (c < 0 || c == '[') { //no result marker, the next game's tags (or the end) finish this one
+                return pgn;
+            }
+            read();
+            if (c == '{' || c == ';' || c == '(') {
+                skipComment(c);
+                continue;
+            }
+            readToken(c);
+            if (isResult(token)) {
+                pgn.setResult(token.toString());
+                return pgn;
+            }
+            int start = skipMoveNumber(token);
+            if (start == token.length() || token.charAt(0) == '$') {
+                continue;
+            }
+            token.delete(0, start);
+            try {
+                int move = San.resolve(board, toMove, token);
+                board.makeMove(move);
+                pgn.addMove(Move.toChessMove(move));
+                toMove = (toMove == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            } catch (IllegalArgumentException e) {
+                String san = token.toString();
+                throw skipGame("Game on line " + gameLine + ", move " + san + " on line " + line
+                        + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // reads a tag pair after its '[', returning false if it isn't [Name "value"]
+    private boolean readTag(PgnGame pgn) throws IOException {
+        skipWhitespace();
+        token.setLength(0);
+        int c = peek();
+        while (c >= 0 && c != '"' && c != ']' && !Character.isWhitespace(c)) {
+            token.append((char) read());
+            c = peek();
+        }
+        String name = token.toString();
+        if (skipWhitespace() != '"' || name.isEmpty()) {
+            return false;
+        }
+        read();
+        token.setLength(0);
+        c = read();
+        while (c >= 0 && c != '"' && c != '\n') {
+            if (c == '\\') {
+                c = read();
+            }
+            token.append((char) c);
+            c = read();
+        }
+        if (c != '"' || skipWhitespace() != ']') {
+            return false;
+        }
+        read();
+        pgn.setTag(name, token.toString());
+        return true;
+    }
+
+    private void readToken(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        int c = peek();
+        while (c >= 0 && !Character.isWhitespace(c) && "{}()[];".indexOf(c) < 0) {
+            token.append((char) read());
+            c = peek();
+        }
+    }
+
+    // skips a {comment}, a ;comment to the end of the line, or a (variation) with everything nested in it
+    private void skipComment(int open) throws IOException {
+        if (open == '{') {
+            int c = read();
+            while (c >= 0 && c != '}') {
+                c = read();
+            }
+        } else if (open == ';') {
+            int c = read();
+            while (c >= 0 && c != '\n') {
+                c = read();
+            }
+        } else {
+            int depth = 1;
+            while (depth > 0) {
+                int c = read();
+                if (c < 0) {
+                    return;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == '{' || c == ';') {
+                    skipComment(c);
+                }
+            }
+        }
+    }
+
+    // throws away the rest of the current game, up to its result marker or the next game's tags
+    private PgnException skipGame(String message, Exception cause) throws IOException {
+        int c = skipWhitespace();
+        while (c == '[') {
+            while (c >= 0 && c != ']') {
+                c = read();
+            }
+            c = skipWhitespace();
+        }
+        while (c >= 0 && c != '[') {
+            read();
+            if (c == '{' || c == ';' || c == '(') {
+                skipComment(c);
+            } else {
+                readToken(c);
+                if (isResult(token)) {
+                    break;
+                }
+            }
+            c = skipWhitespace();
+        }
+        return new PgnException(message, cause);
+    }
+
+    private static boolean isResult(CharSequence text) {
+        return contentEquals(text, PgnGame.WHITE_WINS) || contentEquals(text, PgnGame.BLACK_WINS)
+                || contentEquals(text, PgnGame.DRAW) || contentEquals(text, PgnGame.UNFINISHED);
+    }
+
+    private static boolean contentEquals(CharSequence text, String value) {
+        return text.length() == value.length() && value.contentEquals(text);
+    }
+
+    // returns where the move starts in "12.e4", "12..." or "e4"
+    private static int skipMoveNumber(CharSequence text) {
+        int i = 0;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i < text.length() && text.charAt(i) != '.') {
+            return 0;
+        }
+        while (i < text.length() && text.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    // skips whitespace and %-escaped lines, returning the next character without reading it
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (c >= 0 && (Character.isWhitespace(c) || (c == '%' && lineStart))) {
+            if (c == '%') {
+                skipComment(';');
+            } else {
+                read();
+            }
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        lineStart = c == '\n';
+        if (lineStart) {
+            line++;
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        int count = in.read(buffer, 0, buffer.length);
+        while (count == 0) {
+            count = in.read(buffer, 0, buffer.length);
+        }
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+}
@@ -0,0 +1,140 @@
+package chess.pgn;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+import chess.notation.San;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes games as PGN, one at a time, so an export never has to build the whole file in memory.
+ * The seven standard tags always come first (with "?" for missing ones), then any other tags,
+ * then the moves in SAN wrapped at 80 columns.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final int LINE_WIDTH = 80;
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(LINE_WIDTH + 16);
+    private final StringBuilder san = new StringBuilder(16);
+
+    public PgnWriter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out);
+    }
+
+    /**
+     * Writes one game.
+     *
+     * @throws PgnException if a move isn't legal where it's played, or the FEN tag is malformed.
+     *                      The tags (and maybe some moves) will already have been written
+     */
+    public void write(PgnGame pgn) throws IOException {
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = pgn.getTag(name);
+            if (name.equals("Result")) {
+                value = pgn.getResult();
+            } else if (value == null) {
+                value = name.equals("Date") ? "????.??.??" : "?";
+            }
+            writeTag(name, value);
+        }
+        for (var tag : pgn.getTags().entrySet()) {
+            if (!isRosterTag(tag.getKey())) {
+                writeTag(tag.getKey(), tag.getValue());
+            }
+        }
+        out.write('\n');
+
+        ChessGame game;
+        try {
+            game = pgn.startingPosition();
+        } catch (IllegalArgumentException e) {
+            throw new PgnException(e.getMessage(), e);
+        }
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor toMove = game.getTeamTurn();
+        int number = game.getFullmoveNumber();
+        boolean first = true;
+        line.setLength(0);
+        for (ChessMove move : pgn.getMoves()) {
+            boolean white = toMove == ChessGame.TeamColor.WHITE;
+            if (white) {
+                word(number + ".");
+            } else if (first) {
+                word(number + "...");
+            }
+            first = false;
+
+            san.setLength(0);
+            try {
+                if (!move.getStartPosition().isOnBoard() || !move.getEndPosition().isOnBoard()) {
+                    throw new IllegalArgumentException("Not a legal move: " + move);
+                }
+                int encoded = Move.encode(move);
+                San.append(board, toMove, encoded, san);
+                board.makeMove(encoded);
+            } catch (IllegalArgumentException e) {
+                throw new PgnException("Illegal move " + move + " at move " + number, e);
+            }
+            toMove = white ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            word(san);
+            if (!white) {
+                number++;
+            }
+        }
+        word(pgn.getResult());
+        out.append(line).append("\n\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeTag(String name, String value) throws IOException {
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+            }
+            out.write(c);
+        }
+        out.write("\"]\n");
+    }
+
+    // adds a word to the current line, starting a new line first if it wouldn't fit
+    private void word(CharSequence word) throws IOException {
+        if (line.length() > 0 && line.length() + 1 + word.length() > LINE_WIDTH) {
+            out.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(word);
+    }
+
+    private static boolean isRosterTag(String name) {
+        for (String rosterTag : SEVEN_TAG_ROSTER) {
+            if (rosterTag.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,37 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessGameCodecTest {
+
+    @Test
+    void roundTripsStartingPosition() {
+        ChessGame game = new ChessGame();
+        byte[] bytes = ChessGameCodec.encode(game);
+
+        assertEquals(ChessGameCodec.LENGTH, bytes.length);
+        ChessGame decoded = ChessGameCodec.decode(bytes);
+        assertEquals(game, decoded);
+        assertEquals(game.zobristKey(), decoded.zobristKey());
+        assertEquals(game.toFen(), decoded.toFen());
+    }
+
+    @Test
+    void keepsEveryFenField() {
+        String fen = "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP2BPPP/R2QKB1R b KQ c3 4 9";
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(ChessGame.fromFen(fen)));
+        assertEquals(fen, decoded.toFen());
+        assertEquals(ChessGame.fromFen(fen).getBoard().positionScore(), decoded.getBoard().positionScore());
+    }
+
+    @Test
+    void rejectsBadBytes() {
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(new byte[5]));
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(null));
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+        bytes[1] = (byte) 0xFF;
+        assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(bytes));
+    }
+}
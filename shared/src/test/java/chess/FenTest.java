@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTest {
+
+    @Test
+    void startingPositionRoundTrip() {
+        assertEquals(ChessGame.START_FEN, new ChessGame().toFen());
+
+        ChessGame game = ChessGame.fromFen(ChessGame.START_FEN);
+        assertEquals(new ChessGame(), game);
+        assertEquals(new ChessGame().zobristKey(), game.zobristKey());
+        assertEquals(ChessGame.START_FEN, game.toFen());
+    }
+
+    @Test
+    void middlegameRoundTrip() {
+        String fen = "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP2BPPP/R2QKB1R b KQ c3 4 9";
+        ChessGame game = ChessGame.fromFen(fen);
+
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(ChessGame.WHITE_KINGSIDE | ChessGame.WHITE_QUEENSIDE, game.getCastlingRights());
+        assertEquals(ChessPosition.of(3, 3), game.getEnPassantTarget());
+        assertEquals(4, game.getHalfmoveClock());
+        assertEquals(9, game.getFullmoveNumber());
+        assertEquals(17, game.getPly());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(6, 3)));
+        assertEquals(fen, game.toFen());
+    }
+
+    @Test
+    void boardPlacementOnly() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR", board.toFen());
+        assertEquals(board, ChessBoard.fromFen(ChessGame.START_FEN));
+    }
+
+    @Test
+    void missingFieldsDefault() {
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/4K3 w");
+        assertEquals(0, game.getCastlingRights());
+        assertNull(game.getEnPassantTarget());
+        assertEquals("8/8/8/4k3/8/8/8/4K3 w - - 0 1", game.toFen());
+    }
+
+    @Test
+    void makeMoveTracksFields() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", game.toFen());
+
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 5), null));
+        assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPPKPPP/RNBQ1BNR b kq - 2 2", game.toFen());
+    }
+
+    @Test
+    void malformedFenThrows() {
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(""));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("9/8/8/8/8/8/8/8 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/7x w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 x - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w KX - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - e4 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - - z 1"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("8/8/8/8/8/8/8/8 w - - 0 1 extra"));
+    }
+}
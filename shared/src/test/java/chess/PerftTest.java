@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    @Test
+    void startingPositionCounts() {
+        ChessGame game = new ChessGame();
+        //Known values for the starting position. Castling and en passant can't happen this shallow.
+        assertEquals(20, Perft.perft(game, 1));
+        assertEquals(400, Perft.perft(game, 2));
+        assertEquals(8902, Perft.perft(game, 3));
+        assertEquals(197281, Perft.perft(game, 4));
+    }
+
+    @Test
+    void perftLeavesBoardUnchanged() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard before = board.copy();
+
+        Perft.perft(board, ChessGame.TeamColor.WHITE, 3);
+
+        assertEquals(before, board);
+        assertEquals(before.zobristKey(), board.zobristKey());
+    }
+
+    @Test
+    void depthZeroIsOneNode() {
+        assertEquals(1, Perft.perft(new ChessGame(), 0));
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        ChessGame game = new ChessGame();
+        ParallelPerft parallel = new ParallelPerft();
+        for (int depth = 1; depth <= 5; depth++) {
+            assertEquals(Perft.perft(game, depth), parallel.perft(game, depth));
+        }
+    }
+
+    @Test
+    void validateGamesFindsFirstBadMove() {
+        List<ChessMove> good = List.of(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        List<ChessMove> bad = List.of(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null)); //white moves twice
+
+        int[] results = new ParallelPerft().validateGames(List.of(good, bad));
+
+        assertArrayEquals(new int[]{-1, 1}, results);
+    }
+}
@@ -0,0 +1,126 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EngineTest {
+
+    private static ChessGame game(ChessGame.TeamColor toMove, Object... squaresAndPieces) {
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < squaresAndPieces.length; i += 2) {
+            board.addPiece((ChessPosition) squaresAndPieces[i], (ChessPiece) squaresAndPieces[i + 1]);
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(toMove);
+        return game;
+    }
+
+    private static ChessPiece white(ChessPiece.PieceType type) {
+        return new ChessPiece(ChessGame.TeamColor.WHITE, type);
+    }
+
+    private static ChessPiece black(ChessPiece.PieceType type) {
+        return new ChessPiece(ChessGame.TeamColor.BLACK, type);
+    }
+
+    @Test
+    void findsBackRankMate() {
+        ChessGame game = game(ChessGame.TeamColor.WHITE,
+                new ChessPosition(1, 1), white(ChessPiece.PieceType.ROOK),
+                new ChessPosition(1, 7), white(ChessPiece.PieceType.KING),
+                new ChessPosition(8, 7), black(ChessPiece.PieceType.KING),
+                new ChessPosition(7, 6), black(ChessPiece.PieceType.PAWN),
+                new ChessPosition(7, 7), black(ChessPiece.PieceType.PAWN),
+                new ChessPosition(7, 8), black(ChessPiece.PieceType.PAWN));
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(SearchResult.MATE - 1, result.score());
+    }
+
+    @Test
+    void takesHangingQueen() {
+        ChessGame game = game(ChessGame.TeamColor.BLACK,
+                new ChessPosition(1, 5), white(ChessPiece.PieceType.KING),
+                new ChessPosition(4, 4), white(ChessPiece.PieceType.QUEEN),
+                new ChessPosition(8, 5), black(ChessPiece.PieceType.KING),
+                new ChessPosition(6, 3), black(ChessPiece.PieceType.KNIGHT));
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(3));
+
+        assertEquals(new ChessMove(new ChessPosition(6, 3), new ChessPosition(4, 4), null), result.bestMove());
+        assertFalse(result.principalVariation().isEmpty());
+    }
+
+    @Test
+    void checkmatedSideHasNoMove() {
+        ChessGame game = game(ChessGame.TeamColor.BLACK,
+                new ChessPosition(8, 1), white(ChessPiece.PieceType.ROOK),
+                new ChessPosition(1, 7), white(ChessPiece.PieceType.KING),
+                new ChessPosition(8, 7), black(ChessPiece.PieceType.KING),
+                new ChessPosition(7, 6), black(ChessPiece.PieceType.PAWN),
+                new ChessPosition(7, 7), black(ChessPiece.PieceType.PAWN),
+                new ChessPosition(7, 8), black(ChessPiece.PieceType.PAWN));
+
+        SearchResult result = new Engine().search(game, SearchLimits.depth(3));
+
+        assertNull(result.bestMove());
+        assertEquals(-SearchResult.MATE, result.score());
+    }
+
+    @Test
+    void nodeBudgetStillGivesLegalMove() {
+        ChessGame game = new ChessGame();
+
+        SearchResult result = new Engine().search(game, SearchLimits.nodes(50));
+
+        assertNotNull(result.bestMove());
+        assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+        assertTrue(result.nodes() <= 50);
+    }
+
+    @Test
+    void unfinishedFirstIterationReportsDepthZero() {
+        SearchResult result = new Engine().search(new ChessGame(), SearchLimits.nodes(2));
+
+        assertNotNull(result.bestMove());
+        assertEquals(0, result.depth());
+        assertEquals(0, result.score());
+    }
+
+    @Test
+    void searchDoesNotChangeGame() {
+        ChessGame game = new ChessGame();
+        ChessGame before = game.copy();
+
+        new Engine().search(game, SearchLimits.depth(3));
+
+        assertEquals(before, game);
+    }
+
+    @Test
+    void helperThreadsFindSameMate() {
+        ChessGame game = game(ChessGame.TeamColor.WHITE,
+                new ChessPosition(1, 1), white(ChessPiece.PieceType.ROOK),
+                new ChessPosition(1, 7), white(ChessPiece.PieceType.KING),
+                new ChessPosition(8, 7), black(ChessPiece.PieceType.KING),
+                new ChessPosition(7, 6), black(ChessPiece.PieceType.PAWN),
+                new ChessPosition(7, 7), black(ChessPiece.PieceType.PAWN),
+                new ChessPosition(7, 8), black(ChessPiece.PieceType.PAWN));
+        Engine engine = new Engine(new Evaluator(), new TranspositionTable(4));
+
+        SearchResult result = engine.search(game, SearchLimits.depth(5).withThreads(4));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestMove());
+        assertEquals(SearchResult.MATE - 1, result.score());
+    }
+}
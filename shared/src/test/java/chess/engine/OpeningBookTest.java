@@ -0,0 +1,100 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import chess.Move;
+import chess.notation.San;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTest {
+
+    private static List<ChessMove> line(String... sans) throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        List<ChessMove> moves = new ArrayList<>();
+        for (String san : sans) {
+            ChessMove move = San.parse(game, san);
+            game.makeMove(move);
+            moves.add(move);
+        }
+        return moves;
+    }
+
+    private static OpeningBook book(Path dir) throws IOException, InvalidMoveException {
+        Path file = dir.resolve("test.book");
+        new OpeningBook.Builder()
+                .addLine(new ChessGame(), line("e4", "e5", "Nf3", "Nc6"), 10, 1)
+                .addLine(new ChessGame(), line("e4", "c5", "Nf3"), 10, 1)
+                .addLine(new ChessGame(), line("d4", "d5"), 10, 1)
+                .write(file);
+        return OpeningBook.open(file);
+    }
+
+    @Test
+    void bestMoveIsMostPlayed(@TempDir Path dir) throws IOException, InvalidMoveException {
+        OpeningBook book = book(dir);
+        ChessGame start = new ChessGame();
+
+        assertEquals(8, book.size()); //e4 and Nf3 after it are merged into one entry each
+        assertEquals(Move.encode(San.parse(start, "e4")), book.bestMove(start.zobristKey()));
+        assertEquals(Move.NONE, book.bestMove(start.zobristKey() + 1));
+    }
+
+    @Test
+    void pickMoveFollowsWeights(@TempDir Path dir) throws IOException, InvalidMoveException {
+        OpeningBook book = book(dir);
+        ChessGame start = new ChessGame();
+        int e4 = 0;
+        int d4 = 0;
+        for (int random = 0; random < 300; random++) {
+            ChessMove move = book.pickMove(start, random);
+            if (move.equals(San.parse(start, "e4"))) {
+                e4++;
+            } else if (move.equals(San.parse(start, "d4"))) {
+                d4++;
+            }
+        }
+        assertEquals(200, e4);
+        assertEquals(100, d4);
+
+        ChessGame game = new ChessGame();
+        game.makeMove(San.parse(game, "a3"));
+        assertNull(book.pickMove(game, 0));
+    }
+
+    @Test
+    void engineAnswersFromBook(@TempDir Path dir) throws IOException, InvalidMoveException {
+        Engine engine = new Engine(new Evaluator(), new TranspositionTable(1), book(dir));
+        ChessGame game = new ChessGame();
+        game.makeMove(San.parse(game, "d4"));
+
+        SearchResult result = engine.search(game, SearchLimits.depth(6));
+        assertEquals(San.parse(game, "d5"), result.bestMove());
+        assertEquals(0, result.nodes());
+    }
+
+    @Test
+    void skipsBadPromotionCode(@TempDir Path dir) throws IOException, InvalidMoveException {
+        Path file = dir.resolve("bad.book");
+        ChessGame game = new ChessGame();
+        int e4 = Move.encode(San.parse(game, "e4"));
+        new OpeningBook.Builder().add(game.zobristKey(), e4 | (7 << 12), 1).write(file);
+        assertNull(OpeningBook.open(file).pickMove(game, 0));
+    }
+
+    @Test
+    void rejectsTruncatedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("bad.book");
+        Files.write(file, new byte[20]);
+        assertThrows(IOException.class, () -> OpeningBook.open(file));
+    }
+}
@@ -0,0 +1,95 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseTest {
+    @TempDir
+    static Path directory;
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        TablebaseGenerator.generate(directory);
+        tablebase = Tablebase.open(directory);
+    }
+
+    @Test
+    void loadsEveryTable() {
+        for (Tablebase.Endgame endgame : Tablebase.Endgame.values()) {
+            assertTrue(tablebase.has(endgame));
+        }
+    }
+
+    @Test
+    void knownResults() {
+        //A rook mates from the corner in one.
+        assertEquals(SearchResult.MATE - 1, tablebase.probe(ChessGame.fromFen("k7/8/1K6/8/8/8/8/7R w - - 0 1")));
+        //Stalemate, and the king in front of its pawn on the sixth rank.
+        assertEquals(0, tablebase.probe(ChessGame.fromFen("4k3/4P3/4K3/8/8/8/8/8 b - - 0 1")));
+        assertTrue(tablebase.probe(ChessGame.fromFen("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1")) < 0);
+        //Bare kings and a lone bishop are draws; bigger positions aren't covered.
+        assertEquals(0, tablebase.probe(ChessGame.fromFen("4k3/8/8/8/8/8/8/2B1K3 w - - 0 1")));
+        assertEquals(Tablebase.NOT_FOUND, tablebase.probe(new ChessGame()));
+    }
+
+    @Test
+    void blackWithThePieceIsMirrored() {
+        int white = tablebase.probe(ChessGame.fromFen("8/8/8/3k4/8/8/8/Q3K3 w - - 0 1"));
+        int black = tablebase.probe(ChessGame.fromFen("q3k3/8/8/8/3K4/8/8/8 b - - 0 1"));
+        assertTrue(white > 0);
+        assertEquals(white, black);
+    }
+
+    @Test
+    void longestMates() throws IOException {
+        //KQK takes at most 10 moves and KRK 16, so 19 and 31 plies for the side to move.
+        assertEquals(SearchResult.MATE - 19, longestWin(Tablebase.Endgame.KQK));
+        assertEquals(SearchResult.MATE - 31, longestWin(Tablebase.Endgame.KRK));
+    }
+
+    @Test
+    void bestMovesMateOnSchedule() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen("8/8/8/4k3/8/8/8/R3K3 w - - 0 1");
+        int score = tablebase.probe(game);
+        int plies = 0;
+        while (game.getStatus() != ChessGame.GameStatus.CHECKMATE) {
+            ChessMove move = tablebase.bestMove(game);
+            assertNotNull(move);
+            game.makeMove(move);
+            plies++;
+        }
+        assertEquals(SearchResult.MATE - score, plies);
+    }
+
+    @Test
+    void engineUsesTablebase() {
+        Engine engine = new Engine(new Evaluator(), new TranspositionTable(1), null, tablebase);
+        SearchResult result = engine.search(ChessGame.fromFen("8/8/8/4k3/8/8/8/R3K3 w - - 0 1"),
+                SearchLimits.depth(4));
+        assertTrue(result.isMate());
+        assertEquals(0, result.nodes());
+    }
+
+    private static int longestWin(Tablebase.Endgame endgame) throws IOException {
+        byte[] table = Files.readAllBytes(directory.resolve(endgame.fileName()));
+        int longest = SearchResult.MATE;
+        for (int index = 0; index < Tablebase.POSITIONS / 2; index++) { //white to move
+            int score = Tablebase.score(table[index] & 0xFF);
+            if (score != Tablebase.NOT_FOUND && score > 0) {
+                longest = Math.min(longest, score);
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,80 @@
+package chess.engine;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTest {
+
+    @Test
+    void storeThenProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+
+        table.store(0x1234_5678_9ABCL, 777, -42, 5, TranspositionTable.LOWER_BOUND, 0);
+        long entry = table.probe(0x1234_5678_9ABCL);
+
+        assertNotEquals(0, entry);
+        assertEquals(777, TranspositionTable.move(entry));
+        assertEquals(-42, TranspositionTable.score(entry, 0));
+        assertEquals(5, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+    }
+
+    @Test
+    void differentKeyMisses() {
+        TranspositionTable table = new TranspositionTable(1);
+
+        table.store(99L, 1, 0, 1, TranspositionTable.EXACT, 0);
+
+        assertEquals(0, table.probe(100L));
+        assertEquals(0, table.probe(99L + (1L << 40))); //same bucket, different key
+    }
+
+    @Test
+    void deepEntrySurvivesShallowOne() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deepKey = 5L;
+        long shallowKey = 5L + (1L << 40); //same bucket
+
+        table.store(deepKey, 1, 10, 8, TranspositionTable.EXACT, 0);
+        table.store(shallowKey, 2, 20, 1, TranspositionTable.EXACT, 0);
+        table.store(shallowKey + (1L << 41), 3, 30, 1, TranspositionTable.EXACT, 0);
+
+        assertEquals(8, TranspositionTable.depth(table.probe(deepKey)));
+    }
+
+    @Test
+    void mateScoresAreStoredRelativeToPosition() {
+        TranspositionTable table = new TranspositionTable(1);
+
+        table.store(7L, 1, SearchResult.MATE - 5, 3, TranspositionTable.EXACT, 2); //mate 3 plies from here
+
+        assertEquals(SearchResult.MATE - 4, TranspositionTable.score(table.probe(7L), 1));
+    }
+
+    @Test
+    void longTablebaseMatesStayMates() {
+        TranspositionTable table = new TranspositionTable(1);
+        int score = SearchResult.MATE - Tablebase.MAX_MATE_PLIES - 40; //the longest tablebase mate, 40 plies in
+
+        table.store(7L, 1, score, 3, TranspositionTable.EXACT, 40);
+
+        assertEquals(score + 38, TranspositionTable.score(table.probe(7L), 2));
+        assertTrue(new SearchResult(null, score, 0, 0, List.of()).isMate());
+    }
+
+    @Test
+    void sharedTableSearchesAgree() {
+        TranspositionTable table = new TranspositionTable(4);
+        Engine engine = new Engine(new Evaluator(), table);
+
+        SearchResult first = engine.search(new ChessGame(), SearchLimits.depth(5));
+        SearchResult second = engine.search(new ChessGame(), SearchLimits.depth(5));
+
+        assertEquals(first.score(), second.score());
+        assertTrue(second.nodes() < first.nodes());
+    }
+}
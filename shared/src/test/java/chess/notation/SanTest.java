@@ -0,0 +1,97 @@
+package chess.notation;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SanTest {
+
+    @Test
+    void parsesCommonMoves() {
+        ChessGame game = new ChessGame();
+        assertEquals(ChessMove.of(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null), San.parse(game, "e4"));
+        assertEquals(ChessMove.of(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null), San.parse(game, "Nf3"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "e5"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Nd2"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "O-O"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Zz9"));
+    }
+
+    @Test
+    void disambiguation() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        ChessMove rookA = ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(1, 4), null);
+        assertEquals("Rad1", San.format(game, rookA));
+        assertEquals(rookA, San.parse(game, "Rad1"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Rd1"));
+
+        ChessGame knights = ChessGame.fromFen("4k3/8/8/1N6/8/1N6/8/4K3 w - - 0 1");
+        ChessMove lower = ChessMove.of(ChessPosition.of(3, 2), ChessPosition.of(4, 4), null);
+        assertEquals("N3d4", San.format(knights, lower));
+        assertEquals(lower, San.parse(knights, "N3d4"));
+    }
+
+    @Test
+    void captureMarkMustMatch() {
+        //a black pawn on e4 can be taken from d3, but only when the text says so
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/4p3/3P4/8/4K3 w - - 0 1");
+        ChessMove capture = ChessMove.of(ChessPosition.of(3, 4), ChessPosition.of(4, 5), null);
+        assertEquals("dxe4", San.format(game, capture));
+        assertEquals(capture, San.parse(game, "dxe4"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "e4"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "de4"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "dxd4"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "Kxd2"));
+    }
+
+    @Test
+    void promotionAndMate() {
+        ChessGame game = ChessGame.fromFen("k7/4P3/1K6/8/8/8/8/8 w - - 0 1");
+        ChessMove queen = ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(8, 5), ChessPiece.PieceType.QUEEN);
+        assertEquals("e8=Q#", San.format(game, queen));
+        assertEquals(queen, San.parse(game, "e8=Q#"));
+        assertEquals(queen, San.parse(game, "e8Q"));
+        assertThrows(IllegalArgumentException.class, () -> San.parse(game, "e8"));
+
+        ChessMove knight = ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(8, 5), ChessPiece.PieceType.KNIGHT);
+        assertEquals("e8=N", San.format(game, knight));
+    }
+
+    @Test
+    void uci() {
+        ChessGame game = ChessGame.fromFen("k7/4P3/1K6/8/8/8/8/8 w - - 0 1");
+        ChessMove rook = ChessMove.of(ChessPosition.of(7, 5), ChessPosition.of(8, 5), ChessPiece.PieceType.ROOK);
+        assertEquals("e7e8r", Uci.format(rook));
+        assertEquals(rook, Uci.parse(game, "e7e8r"));
+        assertEquals("b6c6", Uci.format(Uci.parse(game, "b6c6")));
+        assertThrows(IllegalArgumentException.class, () -> Uci.parse(game, "e7e8"));
+        assertThrows(IllegalArgumentException.class, () -> Uci.parse(game, "b6b7"));
+        assertThrows(IllegalArgumentException.class, () -> Uci.parse(game, "e7e8k"));
+    }
+
+    @Test
+    void everyLegalMoveRoundTrips() throws InvalidMoveException {
+        Random random = new Random(17);
+        for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 80 && game.getStatus() != ChessGame.GameStatus.CHECKMATE
+                    && game.getStatus() != ChessGame.GameStatus.STALEMATE; ply++) {
+                List<ChessMove> legal = new ArrayList<>(game.allValidMoves());
+                for (ChessMove move : legal) {
+                    assertEquals(move, San.parse(game, San.format(game, move)));
+                    assertEquals(move, Uci.parse(game, Uci.format(move)));
+                }
+                game.makeMove(legal.get(random.nextInt(legal.size())));
+            }
+        }
+    }
+}
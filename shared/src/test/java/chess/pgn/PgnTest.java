@@ -0,0 +1,111 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PgnTest {
+    private static final String SCHOLARS_MATE = """
+            [Event "Casual"]
+            [Site "?"]
+            [Date "2025.11.03"]
+            [Round "?"]
+            [White "Alice"]
+            [Black "Bob"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Bc4 Nc6 3. Qh5 Nf6 4. Qxf7# 1-0
+
+            """;
+
+    private static final String QUEENS_GAMBIT = """
+            [Event "Club \\"Open\\""]
+            [Result "1/2-1/2"]
+
+            1. d4 Nf6 2. c4 e6 {a comment (with brackets)} 3. Nc3 d5 4. Bg5 Nbd7 $1
+            5. e3 (5. Nf3 Be7 (5... c6)) 5... Be7 6. Nf3 h6 ; rest of line is ignored
+            7. Bh4 b6 8. cxd5 exd5 9. Bd3 c5 10. Qc2 Bb7 1/2-1/2
+            """;
+
+    @Test
+    void readsGamesOneAtATime() throws IOException, InvalidMoveException {
+        PgnReader reader = new PgnReader(new StringReader(SCHOLARS_MATE + QUEENS_GAMBIT));
+
+        PgnGame first = reader.next();
+        assertEquals("Alice", first.getTag("White"));
+        assertEquals(7, first.getMoves().size());
+        assertEquals(PgnGame.WHITE_WINS, first.getResult());
+        assertTrue(first.replay().isInCheckmate(ChessGame.TeamColor.BLACK));
+
+        PgnGame second = reader.next();
+        assertEquals("Club \"Open\"", second.getTag("Event"));
+        assertEquals(20, second.getMoves().size());
+        assertEquals(ChessMove.of(ChessPosition.of(8, 2), ChessPosition.of(7, 4), null), second.getMoves().get(7));
+        assertEquals(PgnGame.DRAW, second.getResult());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void badGameIsSkipped() throws IOException {
+        String bad = "[Event \"Bad\"]\n\n1. e4 e5 2. Ke3 Nc6 3. Bb5 a6 *\n\n";
+        String castles = "[Event \"Castles\"]\n\n1. e4 e5 2. Nf3 Nc6 3. Bc4 Bc5 4. O-O Nf6 *\n\n";
+        PgnReader reader = new PgnReader(new StringReader(bad + castles + SCHOLARS_MATE));
+
+        PgnException illegal = assertThrows(PgnException.class, reader::next);
+        assertTrue(illegal.getMessage().contains("Ke3"));
+        PgnException castling = assertThrows(PgnException.class, reader::next);
+        assertTrue(castling.getMessage().contains("Castling"));
+        assertEquals("Alice", reader.next().getTag("White"));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void writesStandardPgn() throws IOException {
+        PgnGame game = new PgnReader(new StringReader(SCHOLARS_MATE)).next();
+        StringWriter text = new StringWriter();
+        PgnWriter writer = new PgnWriter(text);
+        writer.write(game);
+        writer.flush();
+
+        assertEquals(SCHOLARS_MATE, text.toString());
+    }
+
+    @Test
+    void roundTripKeepsMoves() throws IOException {
+        PgnGame game = new PgnReader(new StringReader(QUEENS_GAMBIT)).next();
+        StringWriter text = new StringWriter();
+        PgnWriter writer = new PgnWriter(text);
+        writer.write(game);
+        writer.flush();
+
+        assertTrue(text.toString().contains("4. Bg5 Nbd7 5. e3"));
+        PgnGame reread = new PgnReader(new StringReader(text.toString())).next();
+        assertEquals(game.getMoves(), reread.getMoves());
+        assertEquals(game.getResult(), reread.getResult());
+    }
+
+    @Test
+    void fenTagSetsStart() throws IOException {
+        PgnGame game = new PgnGame();
+        game.setTag("FEN", "4k3/P7/8/8/8/8/8/4K3 b - - 0 40");
+        game.addMove(ChessMove.of(ChessPosition.of(8, 5), ChessPosition.of(7, 5), null));
+        game.addMove(ChessMove.of(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.QUEEN));
+        StringWriter text = new StringWriter();
+        PgnWriter writer = new PgnWriter(text);
+        writer.write(game);
+        writer.flush();
+
+        assertTrue(text.toString().contains("40... Ke7 41. a8=Q *"));
+        assertEquals(game.getMoves(), new PgnReader(new StringReader(text.toString())).next().getMoves());
+    }
+}